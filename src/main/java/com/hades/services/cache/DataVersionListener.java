@@ -0,0 +1,46 @@
+package com.hades.services.cache;
+
+import com.hades.services.model.Drone;
+import com.hades.services.model.DroneImage;
+import com.hades.services.model.Earthquake;
+import com.hades.services.model.Report;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that bumps the table version once the writing transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataVersionListener {
+
+    private final DataVersions dataVersions;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        DataVersions.Table table = tableOf(entity);
+        if (table == null) {
+            return;
+        }
+
+        dataVersions.bumpAfterCommit(table);
+    }
+
+    private static DataVersions.Table tableOf(Object entity) {
+        if (entity instanceof Earthquake) {
+            return DataVersions.Table.EARTHQUAKES;
+        } else if (entity instanceof Drone) {
+            return DataVersions.Table.DRONES;
+        } else if (entity instanceof DroneImage) {
+            return DataVersions.Table.DRONE_IMAGES;
+        } else if (entity instanceof Report) {
+            return DataVersions.Table.REPORTS;
+        }
+        return null;
+    }
+}
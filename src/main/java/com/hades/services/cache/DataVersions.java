@@ -0,0 +1,113 @@
+package com.hades.services.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-table modification counters used to build cheap ETags for polled listings.
+ * Counters are bumped after a write commits (see {@link DataVersionListener}), so a
+ * dashboard poll can be answered with 304 before any entity table is queried.
+ *
+ * <p>The counters are PostgreSQL sequences shared by every instance; each instance
+ * keeps a local copy that is re-read at most every {@code hades.cache.version-refresh-ms},
+ * so a write on another instance invalidates ETags here within that interval, and a
+ * write on this instance does so immediately.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataVersions {
+
+    public enum Table {
+        EARTHQUAKES, DRONES, DRONE_IMAGES, REPORTS;
+
+        // Created in schema.sql
+        private final String sequence = "data_version_" + name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final String READ_SQL = buildReadSql();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${hades.cache.version-refresh-ms:1000}")
+    private long refreshMs;
+
+    private final AtomicLongArray versions = new AtomicLongArray(Table.values().length);
+    private volatile long refreshedAt = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+    public long get(Table table) {
+        refreshIfStale();
+        return versions.get(table.ordinal());
+    }
+
+    public void bump(Table table) {
+        try {
+            // nextval is not transactional, so this sticks even when called after commit
+            Long version = jdbcTemplate.queryForObject("SELECT nextval('" + table.sequence + "')", Long.class);
+            versions.accumulateAndGet(table.ordinal(), version, Math::max);
+        } catch (DataAccessException e) {
+            System.err.println("Failed to bump data version for " + table + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bump once the current transaction commits, or immediately when none is active.
+     * Bulk and native updates bypass {@link DataVersionListener} and must call this.
+     */
+    public void bumpAfterCommit(Table table) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(table);
+                }
+            });
+        } else {
+            bump(table);
+        }
+    }
+
+    public String etag(Table... tables) {
+        StringBuilder sb = new StringBuilder("\"v");
+        for (Table table : tables) {
+            sb.append('-').append(get(table));
+        }
+        return sb.append('"').toString();
+    }
+
+    private void refreshIfStale() {
+        long now = System.nanoTime();
+        if (now - refreshedAt < TimeUnit.MILLISECONDS.toNanos(refreshMs)) {
+            return;
+        }
+        refreshedAt = now;
+        try {
+            jdbcTemplate.query(READ_SQL, rs -> {
+                for (Table table : Table.values()) {
+                    versions.accumulateAndGet(table.ordinal(), rs.getLong(table.ordinal() + 1), Math::max);
+                }
+            });
+        } catch (DataAccessException e) {
+            System.err.println("Failed to read data versions: " + e.getMessage());
+        }
+    }
+
+    private static String buildReadSql() {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (Table table : Table.values()) {
+            if (table.ordinal() > 0) {
+                sql.append(", ");
+            }
+            sql.append("(SELECT last_value FROM ").append(table.sequence).append(')');
+        }
+        return sql.toString();
+    }
+}
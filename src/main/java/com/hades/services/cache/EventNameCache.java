@@ -0,0 +1,38 @@
+package com.hades.services.cache;
+
+import com.hades.services.repository.ReportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-memory copy of the distinct report event names behind the reports filter
+ * dropdown. The copy is tagged with the REPORTS and EARTHQUAKES data versions
+ * it was loaded under and reloaded once either moves, so it only ever reflects
+ * committed writes and stays in step with the ETag other instances hand out.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventNameCache {
+
+    private record Snapshot(long reports, long earthquakes, List<String> names) {
+    }
+
+    private final ReportRepository reportRepository;
+    private final DataVersions dataVersions;
+
+    private volatile Snapshot snapshot;
+
+    public List<String> getAll() {
+        // Versions are read before the query, so a write committing meanwhile forces the next reload
+        long reports = dataVersions.get(DataVersions.Table.REPORTS);
+        long earthquakes = dataVersions.get(DataVersions.Table.EARTHQUAKES);
+        Snapshot current = snapshot;
+        if (current == null || current.reports() != reports || current.earthquakes() != earthquakes) {
+            current = new Snapshot(reports, earthquakes, List.copyOf(reportRepository.findDistinctEventNames()));
+            snapshot = current;
+        }
+        return current.names();
+    }
+}
@@ -0,0 +1,17 @@
+package com.hades.services.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Per-route token buckets, matched in order; the first rule whose paths
+ * (and methods, if given) match the request applies.
+ */
+@ConfigurationProperties(prefix = "hades.rate-limit")
+public record RateLimitProperties(boolean enabled, List<Rule> rules) {
+
+    public record Rule(String name, List<String> paths, List<String> methods, int capacity,
+            double refillPerSecond) {
+    }
+}
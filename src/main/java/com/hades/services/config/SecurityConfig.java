@@ -5,7 +5,10 @@ import com.google.firebase.auth.FirebaseToken;
 import com.hades.services.model.Role;
 import com.hades.services.security.annotation.Access;
 import com.hades.services.security.mapper.FirebaseAuthenticationTokenConverter;
+import com.hades.services.security.web.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -20,6 +23,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
@@ -30,10 +34,20 @@ import java.util.stream.Stream;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(jsr250Enabled = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final FirebaseAuthenticationTokenConverter firebaseAuthenticationTokenConverter;
+    private final RateLimitFilter rateLimitFilter;
+
+    // Runs inside the security chain only, so the uid is known when picking a bucket
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
 
     @Bean
     public RoleHierarchy roleHierarchy() {
@@ -100,7 +114,8 @@ public class SecurityConfig {
                         .bearerTokenResolver(new com.hades.services.security.web.CookieBearerTokenResolver())
                         .jwt(jwt -> jwt
                                 .jwtAuthenticationConverter(firebaseAuthenticationTokenConverter)
-                                .decoder(jwtDecoder())));
+                                .decoder(jwtDecoder())))
+                .addFilterAfter(rateLimitFilter, BearerTokenAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,17 +1,36 @@
 package com.hades.services.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.SerializationConfig;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.EnumFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
 import java.util.Arrays;
 import java.util.List;
 
 @Configuration
-public class WebConfig {
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper;
 
     @Value("${hades.allowed.origins}")
     private String[] allowedOrigins;
@@ -23,11 +42,51 @@ public class WebConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PATCH", "PUT", "DELETE", "OPTIONS", "HEAD"));
         configuration.setAllowCredentials(true);
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept",
-                "Origin", "Access-Control-Request-Method", "Access-Control-Request-Headers"));
+                "Origin", "Access-Control-Request-Method", "Access-Control-Request-Headers", "If-None-Match"));
         configuration.setExposedHeaders(
-                Arrays.asList("Access-Control-Allow-Origin", "Access-Control-Allow-Credentials", "Set-Cookie"));
+                Arrays.asList("Access-Control-Allow-Origin", "Access-Control-Allow-Credentials", "Set-Cookie", "ETag",
+                        "Retry-After"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
+
+    // Compact binary encodings for drones and field tablets on metered links,
+    // selected with Accept: application/cbor or application/x-jackson-smile.
+    // CBOR uses Boot's CBORMapper (spring.jackson.* and spring.jackson.cbor.*);
+    // Boot has no Smile mapper, so that one copies the JSON mapper's settings.
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapperLike(jsonMapper)));
+    }
+
+    private static SmileMapper smileMapperLike(JsonMapper jsonMapper) {
+        SerializationConfig serialization = jsonMapper.serializationConfig();
+        DeserializationConfig deserialization = jsonMapper.deserializationConfig();
+        SmileMapper.Builder smile = SmileMapper.builder();
+        for (MapperFeature feature : MapperFeature.values()) {
+            smile.configure(feature, serialization.isEnabled(feature));
+        }
+        for (SerializationFeature feature : SerializationFeature.values()) {
+            smile.configure(feature, serialization.isEnabled(feature));
+        }
+        for (DeserializationFeature feature : DeserializationFeature.values()) {
+            smile.configure(feature, deserialization.isEnabled(feature));
+        }
+        for (DateTimeFeature feature : DateTimeFeature.values()) {
+            smile.configure(feature, serialization.isEnabled(feature));
+        }
+        for (EnumFeature feature : EnumFeature.values()) {
+            smile.configure(feature, serialization.isEnabled(feature));
+        }
+        return smile.addModules(jsonMapper.registeredModules())
+                .changeDefaultPropertyInclusion(inclusion -> serialization.getDefaultPropertyInclusion())
+                .changeDefaultVisibility(visibility -> serialization.getDefaultVisibilityChecker())
+                .propertyNamingStrategy(serialization.getPropertyNamingStrategy())
+                .defaultDateFormat(serialization.getDateFormat())
+                .defaultTimeZone(serialization.getTimeZone())
+                .defaultLocale(serialization.getLocale())
+                .build();
+    }
 }
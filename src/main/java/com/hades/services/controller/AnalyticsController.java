@@ -0,0 +1,66 @@
+package com.hades.services.controller;
+
+import com.hades.services.model.ImageRollup;
+import com.hades.services.model.ReportRollup;
+import com.hades.services.service.AnalyticsRollupService;
+import jakarta.annotation.security.RolesAllowed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsRollupService analyticsRollupService;
+
+    /**
+     * Reports per bucket by severity band (low/medium/high)
+     */
+    @GetMapping("/reports")
+    public ResponseEntity<List<ReportRollup>> getReportRollups(
+            @RequestParam UUID earthquakeId,
+            @RequestParam(defaultValue = "HOUR") AnalyticsRollupService.Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        if (!granularity.allows(start, end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analyticsRollupService.getReportRollups(earthquakeId, granularity, start, end));
+    }
+
+    /**
+     * Drone images ingested per bucket by drone
+     */
+    @GetMapping("/images")
+    public ResponseEntity<List<ImageRollup>> getImageRollups(
+            @RequestParam UUID earthquakeId,
+            @RequestParam(defaultValue = "FIFTEEN_MINUTES") AnalyticsRollupService.Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        if (!granularity.allows(start, end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analyticsRollupService.getImageRollups(earthquakeId, granularity, start, end));
+    }
+
+    /**
+     * Recompute all rollups from the raw tables
+     */
+    @PostMapping("/rebuild")
+    @RolesAllowed("ADMIN")
+    public ResponseEntity<Void> rebuild() {
+        analyticsRollupService.rebuild();
+        return ResponseEntity.ok().build();
+    }
+}
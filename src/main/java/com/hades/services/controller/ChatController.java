@@ -2,21 +2,31 @@ package com.hades.services.controller;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
-import com.hades.services.model.ChatMessage;
+import com.hades.services.model.ChatCursor;
+import com.hades.services.model.ChatMessagePage;
+import com.hades.services.model.ChatReply;
 import com.hades.services.model.ChatSession;
+import com.hades.services.model.ChatSessionPage;
+import com.hades.services.model.ChatSessionResponse;
 import com.hades.services.model.User;
 import com.hades.services.service.ChatService;
+import com.hades.services.service.ChatStreamService;
 import com.hades.services.service.UserService;
 import com.hades.services.security.annotation.Access;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 @RestController
@@ -26,36 +36,36 @@ import java.util.*;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatStreamService chatStreamService;
     private final UserService userService;
     private static final String COOKIE_NAME = "hades_session";
+    private static final int MAX_PAGE_SIZE = 200;
 
     // ========== SESSION ENDPOINTS ==========
 
     @GetMapping("/sessions")
     @Access.Public
-    public ResponseEntity<List<Map<String, Object>>> getSessions(HttpServletRequest request) {
+    public ResponseEntity<ChatSessionPage> getSessions(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int limit,
+            HttpServletRequest request) {
         Optional<User> currentUser = getCurrentUser(request);
 
         if (currentUser.isEmpty()) {
-            return ResponseEntity.ok(List.of());
+            return ResponseEntity.ok(new ChatSessionPage(List.of(), null, false));
         }
 
-        List<ChatSession> sessions = chatService.getSessions(currentUser.get().getId());
-
-        List<Map<String, Object>> result = sessions.stream().map(session -> {
-            Map<String, Object> item = new HashMap<>();
-            item.put("id", session.getId().toString());
-            item.put("title", session.getTitle());
-            item.put("createdAt", session.getCreatedAt().toString());
-            return item;
-        }).toList();
-
-        return ResponseEntity.ok(result);
+        try {
+            ChatCursor cursor = before == null ? null : ChatCursor.decode(before);
+            return ResponseEntity.ok(chatService.getSessions(currentUser.get().getId(), cursor, clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping("/sessions")
     @Access.Public
-    public ResponseEntity<Map<String, Object>> createSession(
+    public ResponseEntity<ChatSessionResponse> createSession(
             @RequestBody Map<String, String> payload,
             HttpServletRequest request) {
 
@@ -67,13 +77,7 @@ public class ChatController {
 
         String title = payload.getOrDefault("title", "Yeni Sohbet");
         ChatSession session = chatService.createSession(currentUser.get().getId(), title);
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("id", session.getId().toString());
-        result.put("title", session.getTitle());
-        result.put("createdAt", session.getCreatedAt().toString());
-
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(ChatSessionResponse.from(session));
     }
 
     @DeleteMapping("/sessions/{sessionId}")
@@ -102,14 +106,18 @@ public class ChatController {
 
     @GetMapping("/sessions/{sessionId}/messages")
     @Access.Public
-    public ResponseEntity<List<Map<String, Object>>> getSessionMessages(
+    public ResponseEntity<ChatMessagePage> getSessionMessages(
             @PathVariable UUID sessionId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "50") int limit,
             HttpServletRequest request) {
 
         Optional<User> currentUser = getCurrentUser(request);
 
         if (currentUser.isEmpty()) {
-            return ResponseEntity.ok(List.of());
+            return ResponseEntity.ok(new ChatMessagePage(List.of(), null, null, false));
         }
 
         // Verify session belongs to user
@@ -118,30 +126,30 @@ public class ChatController {
             return ResponseEntity.status(403).build();
         }
 
-        List<ChatMessage> messages = chatService.getSessionMessages(sessionId);
-
-        List<Map<String, Object>> result = messages.stream().map(msg -> {
-            Map<String, Object> item = new HashMap<>();
-            item.put("id", msg.getId().toString());
-            item.put("role", msg.getRole());
-            item.put("content", msg.getContent());
-            item.put("imageUrl", msg.getImageUrl());
-            item.put("timestamp", msg.getTimestamp().toString());
-            return item;
-        }).toList();
-
-        return ResponseEntity.ok(result);
+        try {
+            ChatCursor beforeCursor = before == null ? null : ChatCursor.decode(before);
+            ChatCursor afterCursor = after != null ? ChatCursor.decode(after)
+                    : since != null ? ChatCursor.since(since) : null;
+            return ResponseEntity.ok(
+                    chatService.getSessionMessages(sessionId, beforeCursor, afterCursor, clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping("/sessions/{sessionId}/messages")
     @Access.Public
-    public ResponseEntity<Map<String, String>> sendMessage(
+    public ResponseEntity<ChatReply> sendMessage(
             @PathVariable UUID sessionId,
             @RequestBody Map<String, String> payload,
             HttpServletRequest request) {
 
         String message = payload.get("message");
         String image = payload.get("image");
+        if (message == null || message.isBlank()) {
+            // History rows need text; image-only questions go through POST /chat
+            return ResponseEntity.badRequest().build();
+        }
         String responseText = chatService.generateResponse(message, image);
 
         Optional<User> currentUser = getCurrentUser(request);
@@ -150,30 +158,49 @@ public class ChatController {
             // Verify session belongs to user
             Optional<ChatSession> session = chatService.getSession(sessionId);
             if (session.isPresent() && session.get().getUserId().equals(currentUser.get().getId())) {
-                // Save messages
-                chatService.saveMessage(sessionId, currentUser.get().getId(), "user", message, image);
-                chatService.saveMessage(sessionId, currentUser.get().getId(), "assistant", responseText, null);
-
-                // Update session title if it's the first message
-                List<ChatMessage> messages = chatService.getSessionMessages(sessionId);
-                if (messages.size() <= 2) { // Just added first user + assistant message
-                    String title = message.length() > 30 ? message.substring(0, 30) + "..." : message;
-                    chatService.updateSessionTitle(sessionId, title);
-                }
+                chatService.recordExchange(sessionId, currentUser.get().getId(), message, image, responseText);
             }
         }
 
-        Map<String, String> response = new HashMap<>();
-        response.put("response", responseText);
+        return ResponseEntity.ok(new ChatReply(responseText));
+    }
+
+    @PostMapping(value = "/sessions/{sessionId}/messages", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Access.Public
+    public ResponseEntity<SseEmitter> streamMessage(
+            @PathVariable UUID sessionId,
+            @RequestBody Map<String, String> payload,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+
+        String message = payload.get("message");
+        String image = payload.get("image");
+        if (message == null || message.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Only persist when the session belongs to the caller, same as sendMessage
+        UUID userId = null;
+        UUID persistTo = null;
+        Optional<User> currentUser = getCurrentUser(request);
+        if (currentUser.isPresent()) {
+            Optional<ChatSession> session = chatService.getSession(sessionId);
+            if (session.isPresent() && session.get().getUserId().equals(currentUser.get().getId())) {
+                userId = currentUser.get().getId();
+                persistTo = sessionId;
+            }
+        }
 
-        return ResponseEntity.ok(response);
+        // Keep reverse proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return ResponseEntity.ok(chatStreamService.stream(persistTo, userId, message, image));
     }
 
     // ========== LEGACY ENDPOINT (for anonymous users) ==========
 
     @PostMapping
     @Access.Public
-    public ResponseEntity<Map<String, String>> chat(
+    public ResponseEntity<ChatReply> chat(
             @RequestBody Map<String, String> payload,
             HttpServletRequest request) {
 
@@ -181,14 +208,15 @@ public class ChatController {
         String image = payload.get("image");
         String responseText = chatService.generateResponse(message, image);
 
-        Map<String, String> response = new HashMap<>();
-        response.put("response", responseText);
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new ChatReply(responseText));
     }
 
     // ========== HELPER ==========
 
+    private static int clampLimit(int limit) {
+        return Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    }
+
     private Optional<User> getCurrentUser(HttpServletRequest request) {
         // First try SecurityContext
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
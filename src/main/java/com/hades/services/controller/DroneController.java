@@ -1,19 +1,34 @@
 package com.hades.services.controller;
 
+import com.hades.services.cache.DataVersions;
 import com.hades.services.model.Drone;
+import com.hades.services.model.DroneLiveState;
+import com.hades.services.model.DroneSummary;
+import com.hades.services.model.TelemetryPoint;
+import com.hades.services.model.TelemetrySample;
 import com.hades.services.model.User;
-import com.hades.services.repository.DroneImageRepository;
 import com.hades.services.service.DroneService;
+import com.hades.services.service.DroneStatusHub;
+import com.hades.services.service.DroneTelemetryService;
 import com.hades.services.service.UserService;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 @RestController
@@ -22,8 +37,13 @@ import java.util.*;
 public class DroneController {
 
     private final DroneService droneService;
-    private final DroneImageRepository droneImageRepository;
+    private final DataVersions dataVersions;
     private final UserService userService;
+    private final DroneTelemetryService droneTelemetryService;
+    private final DroneStatusHub droneStatusHub;
+
+    private static final int MAX_TELEMETRY_BATCH = 600;
+    private static final int MAX_HISTORY_POINTS = 10_000;
 
     private Optional<User> getCurrentUser(HttpServletRequest request) {
         try {
@@ -49,34 +69,68 @@ public class DroneController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAll(@RequestParam(required = false) String search) {
-        List<Drone> drones;
-        if (search != null && !search.isBlank()) {
-            drones = droneService.search(search);
-        } else {
-            drones = droneService.getAll();
+    public ResponseEntity<List<DroneSummary>> getAll(@RequestParam(required = false) String search,
+            WebRequest request) {
+        // Image counts come from drone_images, so both versions feed the ETag
+        String etag = dataVersions.etag(DataVersions.Table.DRONES, DataVersions.Table.DRONE_IMAGES);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
         }
 
-        // Add image counts from drone_images table
-        List<Map<String, Object>> result = new ArrayList<>();
-        for (Drone drone : drones) {
-            Map<String, Object> droneMap = new HashMap<>();
-            droneMap.put("id", drone.getId());
-            droneMap.put("name", drone.getName());
-            droneMap.put("model", drone.getModel());
-            droneMap.put("serialNumber", drone.getSerialNumber());
-            droneMap.put("status", drone.getStatus());
-            droneMap.put("battery", drone.getBattery());
-            droneMap.put("altitude", drone.getAltitude());
-            droneMap.put("lastUsed", drone.getLastUsed());
-            droneMap.put("createdAt", drone.getCreatedAt());
-            droneMap.put("createdBy", drone.getCreatedBy());
-            // Get actual image count from drone_images table
-            droneMap.put("imageCount", droneImageRepository.countByDroneId(drone.getId()));
-            result.add(droneMap);
+        List<DroneSummary> drones = search != null && !search.isBlank()
+                ? droneService.searchSummaries(search)
+                : droneService.getAllSummaries();
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).cacheControl(CacheControl.noCache())
+                .body(drones);
+    }
+
+    // Snapshot then per-drone changes, served from memory
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) UUID earthquakeId, HttpServletResponse response) {
+        response.setHeader("X-Accel-Buffering", "no");
+        return droneStatusHub.subscribe(earthquakeId);
+    }
+
+    @GetMapping("/live")
+    public ResponseEntity<Collection<DroneLiveState>> getAllLive() {
+        return ResponseEntity.ok(droneTelemetryService.getAllLive());
+    }
+
+    @GetMapping("/{id}/live")
+    public ResponseEntity<DroneLiveState> getLive(@PathVariable UUID id) {
+        return droneTelemetryService.getLive(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Lightweight ingest for drones: batched samples update in-memory state only
+    @PostMapping("/{id}/telemetry")
+    @RolesAllowed({ "ADMIN", "MANAGER" })
+    public ResponseEntity<Void> ingestTelemetry(@PathVariable UUID id, @RequestBody List<TelemetrySample> samples) {
+        if (samples == null || samples.isEmpty() || samples.size() > MAX_TELEMETRY_BATCH) {
+            return ResponseEntity.badRequest().build();
         }
+        if (!droneTelemetryService.ingest(id, samples)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.accepted().build();
+    }
 
-        return ResponseEntity.ok(result);
+    // Defaults to the last hour, bucketed so at most maxPoints are returned
+    @GetMapping("/{id}/telemetry")
+    public ResponseEntity<List<TelemetryPoint>> getTelemetryHistory(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "0") long stepSeconds,
+            @RequestParam(defaultValue = "2000") int maxPoints) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+        if (start.isAfter(end) || stepSeconds < 0 || maxPoints < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(droneTelemetryService.getHistory(id, start, end, Duration.ofSeconds(stepSeconds),
+                Math.min(maxPoints, MAX_HISTORY_POINTS)));
     }
 
     @GetMapping("/{id}")
@@ -176,6 +230,7 @@ public class DroneController {
             }
 
             droneService.delete(id);
+            droneTelemetryService.forget(id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
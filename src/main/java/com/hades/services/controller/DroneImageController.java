@@ -2,7 +2,12 @@ package com.hades.services.controller;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
+import com.hades.services.cache.DataVersions;
+import com.hades.services.model.ActiveDrone;
+import com.hades.services.model.BoundingBox;
 import com.hades.services.model.DroneImage;
+import com.hades.services.model.DroneImagePage;
+import com.hades.services.model.DroneImageResponse;
 import com.hades.services.model.User;
 import com.hades.services.repository.UserRepository;
 import com.hades.services.service.AwsFileService;
@@ -11,8 +16,14 @@ import com.hades.services.service.DroneService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.*;
@@ -26,6 +37,7 @@ public class DroneImageController {
     private final DroneService droneService;
     private final UserRepository userRepository;
     private final AwsFileService awsFileService;
+    private final DataVersions dataVersions;
 
     private UUID getUserIdFromRequest(HttpServletRequest request) {
         Cookie[] cookies = request.getCookies();
@@ -48,55 +60,48 @@ public class DroneImageController {
     }
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAll(
+    public ResponseEntity<DroneImagePage> getAll(
             @RequestParam(required = false) UUID earthquakeId,
             @RequestParam(required = false) UUID droneId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size) {
-        List<DroneImage> images;
-        if (earthquakeId != null) {
-            images = droneImageService.getByEarthquake(earthquakeId);
-        } else if (droneId != null) {
-            images = droneImageService.getByDrone(droneId);
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) Integer zoom) {
+        List<DroneImage> content;
+        long totalElements;
+        boolean hasMore;
+
+        if (bbox != null) {
+            // Map viewport: newest images inside the box, capped by zoom level
+            BoundingBox box;
+            try {
+                box = BoundingBox.parse(bbox);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            int limit = BoundingBox.limitForZoom(zoom, size);
+            content = droneImageService.getInBox(box, earthquakeId, droneId, limit);
+            totalElements = content.size();
+            hasMore = content.size() == limit;
         } else {
-            images = droneImageService.getAll();
+            Page<DroneImage> images = droneImageService.getPage(earthquakeId, droneId, PageRequest.of(page, size));
+            content = images.getContent();
+            totalElements = images.getTotalElements();
+            hasMore = images.hasNext();
         }
 
-        int totalElements = images.size();
-        int start = page * size;
-        int end = Math.min(start + size, totalElements);
-
-        List<DroneImage> paged = (start < totalElements) ? images.subList(start, end) : List.of();
-
         // Add presigned URLs to responses
-        List<Map<String, Object>> result = paged.stream().map(img -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", img.getId());
-            map.put("earthquakeId", img.getEarthquakeId());
-            map.put("droneId", img.getDroneId());
-            map.put("neighborhood", img.getNeighborhood());
-            map.put("fileName", img.getFileName());
-            map.put("filePath", img.getFilePath());
-            map.put("uploadedAt", img.getUploadedAt());
-            map.put("status", img.getStatus());
-            // Generate presigned URL for viewing
+        List<DroneImageResponse> result = content.stream().map(img -> {
+            String presignedUrl;
             try {
-                String presignedUrl = awsFileService.generateGetPresignedUrl(img.getFilePath());
-                map.put("imageUrl", presignedUrl);
+                presignedUrl = awsFileService.generateGetPresignedUrl(img.getFilePath());
             } catch (Exception e) {
-                map.put("imageUrl", null);
+                presignedUrl = null;
             }
-            return map;
+            return DroneImageResponse.from(img, presignedUrl);
         }).toList();
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("images", result);
-        response.put("totalElements", totalElements);
-        response.put("page", page);
-        response.put("size", size);
-        response.put("hasMore", end < totalElements);
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new DroneImagePage(result, totalElements, page, size, hasMore));
     }
 
     @GetMapping("/{id}")
@@ -112,6 +117,8 @@ public class DroneImageController {
             @RequestParam("earthquakeId") UUID earthquakeId,
             @RequestParam("droneId") UUID droneId,
             @RequestParam("neighborhood") String neighborhood,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
             HttpServletRequest request) {
 
         UUID userId = getUserIdFromRequest(request);
@@ -122,7 +129,8 @@ public class DroneImageController {
         try {
             List<DroneImage> uploadedImages = new ArrayList<>();
             for (MultipartFile file : files) {
-                DroneImage image = droneImageService.uploadImage(file, earthquakeId, droneId, neighborhood, userId);
+                DroneImage image = droneImageService.uploadImage(file, earthquakeId, droneId, neighborhood, userId,
+                        latitude, longitude);
                 uploadedImages.add(image);
             }
             return ResponseEntity.ok(uploadedImages);
@@ -146,17 +154,13 @@ public class DroneImageController {
     // ============= Drone Simulation Endpoints =============
 
     @GetMapping("/active-drones")
-    public ResponseEntity<List<Map<String, Object>>> getActiveDrones() {
-        List<Map<String, Object>> drones = droneService.getActiveDrones().stream()
-                .map(drone -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", drone.getId());
-                    map.put("name", drone.getName());
-                    map.put("model", drone.getModel());
-                    return map;
-                })
-                .toList();
-        return ResponseEntity.ok(drones);
+    public ResponseEntity<List<ActiveDrone>> getActiveDrones(WebRequest request) {
+        String etag = dataVersions.etag(DataVersions.Table.DRONES);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).cacheControl(CacheControl.noCache())
+                .body(droneService.getActiveDrones());
     }
 
     @PostMapping("/drone-upload")
@@ -164,13 +168,16 @@ public class DroneImageController {
             @RequestParam("files") MultipartFile[] files,
             @RequestParam("earthquakeId") UUID earthquakeId,
             @RequestParam("droneId") UUID droneId,
-            @RequestParam(value = "neighborhood", defaultValue = "Unknown") String neighborhood) {
+            @RequestParam(value = "neighborhood", defaultValue = "Unknown") String neighborhood,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude) {
 
         try {
             List<DroneImage> uploadedImages = new ArrayList<>();
             for (MultipartFile file : files) {
                 // Use null for userId since this is a drone upload
-                DroneImage image = droneImageService.uploadImage(file, earthquakeId, droneId, neighborhood, null);
+                DroneImage image = droneImageService.uploadImage(file, earthquakeId, droneId, neighborhood, null,
+                        latitude, longitude);
                 uploadedImages.add(image);
             }
             return ResponseEntity.ok(uploadedImages);
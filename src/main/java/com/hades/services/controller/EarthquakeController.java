@@ -1,12 +1,19 @@
 package com.hades.services.controller;
 
+import com.hades.services.cache.DataVersions;
+import com.hades.services.model.DamageSummary;
 import com.hades.services.model.Earthquake;
-import com.hades.services.repository.DroneImageRepository;
+import com.hades.services.model.EarthquakeSummary;
+import com.hades.services.service.DamageAggregateService;
 import com.hades.services.service.EarthquakeService;
 import jakarta.annotation.security.RolesAllowed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -17,37 +24,23 @@ import java.util.*;
 public class EarthquakeController {
 
     private final EarthquakeService earthquakeService;
-    private final DroneImageRepository droneImageRepository;
+    private final DataVersions dataVersions;
+    private final DamageAggregateService damageAggregateService;
 
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAll(@RequestParam(required = false) String search) {
-        List<Earthquake> earthquakes;
-        if (search != null && !search.isBlank()) {
-            earthquakes = earthquakeService.search(search);
-        } else {
-            earthquakes = earthquakeService.getAll();
+    public ResponseEntity<List<EarthquakeSummary>> getAll(@RequestParam(required = false) String search,
+            WebRequest request) {
+        // Image counts come from drone_images, so both versions feed the ETag
+        String etag = dataVersions.etag(DataVersions.Table.EARTHQUAKES, DataVersions.Table.DRONE_IMAGES);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
         }
 
-        // Add image counts from drone_images table
-        List<Map<String, Object>> result = new ArrayList<>();
-        for (Earthquake eq : earthquakes) {
-            Map<String, Object> eqMap = new HashMap<>();
-            eqMap.put("id", eq.getId());
-            eqMap.put("name", eq.getName());
-            eqMap.put("magnitude", eq.getMagnitude());
-            eqMap.put("location", eq.getLocation());
-            eqMap.put("date", eq.getDate());
-            eqMap.put("status", eq.getStatus());
-            eqMap.put("collapsed", eq.getCollapsed());
-            eqMap.put("damaged", eq.getDamaged());
-            eqMap.put("blocked", eq.getBlocked());
-            eqMap.put("createdAt", eq.getCreatedAt());
-            // Get actual image count from drone_images table
-            eqMap.put("images", droneImageRepository.countByEarthquakeId(eq.getId()));
-            result.add(eqMap);
-        }
-
-        return ResponseEntity.ok(result);
+        List<EarthquakeSummary> earthquakes = search != null && !search.isBlank()
+                ? earthquakeService.searchSummaries(search)
+                : earthquakeService.getAllSummaries();
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).cacheControl(CacheControl.noCache())
+                .body(earthquakes);
     }
 
     @GetMapping("/{id}")
@@ -57,6 +50,20 @@ public class EarthquakeController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/damage")
+    public ResponseEntity<DamageSummary> getDamage(@PathVariable UUID id) {
+        return damageAggregateService.getSummary(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/damage/rebuild")
+    @RolesAllowed("ADMIN")
+    public ResponseEntity<Void> rebuildDamage() {
+        damageAggregateService.rebuild();
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping
     @RolesAllowed("ADMIN")
     public ResponseEntity<Earthquake> create(@RequestBody Map<String, Object> payload) {
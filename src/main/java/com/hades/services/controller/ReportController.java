@@ -1,33 +1,55 @@
 package com.hades.services.controller;
 
+import com.hades.services.cache.DataVersions;
+import com.hades.services.model.BoundingBox;
 import com.hades.services.model.DroneImage;
 import com.hades.services.model.Drone;
 import com.hades.services.model.Earthquake;
+import com.hades.services.model.PendingImage;
+import com.hades.services.model.PendingImageResponse;
 import com.hades.services.model.Report;
+import com.hades.services.model.ReportPage;
+import com.hades.services.model.ReportResponse;
+import com.hades.services.model.ReportSearchResult;
 import com.hades.services.repository.DroneRepository;
 import com.hades.services.repository.EarthquakeRepository;
 import com.hades.services.service.AwsFileService;
 import com.hades.services.service.DroneImageService;
+import com.hades.services.service.ReportExportService;
 import com.hades.services.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/reports")
 @RequiredArgsConstructor
 public class ReportController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ReportService reportService;
+    private final ReportExportService reportExportService;
+    private final DataVersions dataVersions;
     private final DroneImageService droneImageService;
     private final AwsFileService awsFileService;
     private final DroneRepository droneRepository;
@@ -37,45 +59,115 @@ public class ReportController {
      * Get all reports with pagination and filters
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllReports(
+    public ResponseEntity<ReportPage> getAllReports(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String eventName,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) Integer zoom) {
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Report> reportPage = reportService.getReportsWithFilters(eventName, status, search, pageable);
+        if (bbox != null) {
+            // Map viewport: newest reports inside the box, capped by zoom level
+            BoundingBox box;
+            try {
+                box = BoundingBox.parse(bbox);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            int limit = BoundingBox.limitForZoom(zoom, size);
+            List<Report> results = reportService.getReportsInBox(box, eventName, status, limit);
+            return ResponseEntity.ok(new ReportPage(
+                    toResponses(results), 0, 1, results.size(), results.size() == limit));
+        }
 
-        List<Map<String, Object>> enrichedReports = reportPage.getContent().stream()
-                .map(this::enrichReport)
-                .collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(page, size);
+        Page<?> reportPage;
+        List<ReportResponse> reports;
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("reports", enrichedReports);
-        response.put("currentPage", reportPage.getNumber());
-        response.put("totalPages", reportPage.getTotalPages());
-        response.put("totalElements", reportPage.getTotalElements());
-        response.put("hasMore", reportPage.hasNext());
+        if (search != null && !search.isBlank()) {
+            Page<ReportSearchResult> results = reportService.searchReports(eventName, status, search, pageable);
+            // Skip hits whose report was deleted between the search and the load
+            List<ReportSearchResult> found = results.getContent().stream()
+                    .filter(result -> result.report() != null)
+                    .toList();
+            Map<UUID, String> imageUrls = resolveImageUrls(found.stream().map(ReportSearchResult::report).toList());
+            reports = found.stream()
+                    .map(result -> ReportResponse.from(result.report(), imageUrls.get(result.report().getId()),
+                            result.rank(), result.snippet()))
+                    .toList();
+            reportPage = results;
+        } else {
+            Page<Report> results = reportService.getReportsWithFilters(eventName, status, pageable);
+            reports = toResponses(results.getContent());
+            reportPage = results;
+        }
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new ReportPage(
+                reports,
+                reportPage.getNumber(),
+                reportPage.getTotalPages(),
+                reportPage.getTotalElements(),
+                reportPage.hasNext()));
     }
 
     /**
      * Get distinct event names for filtering dropdown
      */
     @GetMapping("/events")
-    public ResponseEntity<List<String>> getEventNames() {
-        return ResponseEntity.ok(reportService.getDistinctEventNames());
+    public ResponseEntity<List<String>> getEventNames(WebRequest request) {
+        String etag = dataVersions.etag(DataVersions.Table.REPORTS, DataVersions.Table.EARTHQUAKES);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).cacheControl(CacheControl.noCache())
+                .body(reportService.getDistinctEventNames());
+    }
+
+    /**
+     * Stream every report of an earthquake as NDJSON or CSV, optionally gzip-encoded
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReports(
+            @RequestParam UUID earthquakeId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ReportExportService.Format exportFormat;
+        try {
+            exportFormat = ReportExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String extension = exportFormat == ReportExportService.Format.CSV ? "csv" : "ndjson";
+        MediaType contentType = exportFormat == ReportExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192, true) : out;
+            reportExportService.export(earthquakeId, exportFormat, target);
+            target.close();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reports-" + earthquakeId + "." + extension + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     /**
      * Get a single report by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getReportById(@PathVariable UUID id) {
+    public ResponseEntity<ReportResponse> getReportById(@PathVariable UUID id) {
         return reportService.getReportById(id)
-                .map(report -> ResponseEntity.ok(enrichReport(report)))
+                .map(report -> ResponseEntity.ok(toResponse(report)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -113,9 +205,12 @@ public class ReportController {
                     request.damagedStructures,
                     request.blockedRoads,
                     request.severityScore);
+            report.setFilePath(droneImage.getFilePath());
+            report.setLatitude(request.latitude != null ? request.latitude : droneImage.getLatitude());
+            report.setLongitude(request.longitude != null ? request.longitude : droneImage.getLongitude());
 
             Report savedReport = reportService.createReport(report);
-            return ResponseEntity.ok(enrichReport(savedReport));
+            return ResponseEntity.ok(toResponse(savedReport));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body("Failed to create report: " + e.getMessage());
@@ -123,43 +218,20 @@ public class ReportController {
     }
 
     /**
-     * Get drone images that don't have reports yet
+     * Get drone images that don't have reports yet, newest first
      */
     @GetMapping("/pending-images")
-    public ResponseEntity<List<Map<String, Object>>> getPendingImages() {
-        List<DroneImage> images = reportService.getImagesWithoutReports();
-
-        List<Map<String, Object>> enrichedImages = images.stream().map(image -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", image.getId());
-            map.put("earthquakeId", image.getEarthquakeId());
-            map.put("droneId", image.getDroneId());
-            map.put("neighborhood", image.getNeighborhood());
-            map.put("fileName", image.getFileName());
-            map.put("filePath", image.getFilePath());
-            map.put("uploadedAt", image.getUploadedAt());
-
-            try {
-                String imageUrl = awsFileService.generateGetPresignedUrl(image.getFilePath());
-                map.put("imageUrl", imageUrl);
-            } catch (Exception e) {
-                map.put("imageUrl", null);
-            }
-
-            earthquakeRepository.findById(image.getEarthquakeId()).ifPresent(earthquake -> {
-                map.put("earthquakeName", earthquake.getName());
-                map.put("earthquakeLocation", earthquake.getLocation());
-                map.put("earthquakeMagnitude", earthquake.getMagnitude());
-            });
-
-            droneRepository.findById(image.getDroneId()).ifPresent(drone -> {
-                map.put("droneName", drone.getName());
-            });
+    public ResponseEntity<List<PendingImageResponse>> getPendingImages(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        List<PendingImage> images = reportService.getImagesWithoutReports(
+                PageRequest.of(Math.max(page, 0), Math.clamp(size, 1, MAX_PAGE_SIZE)));
 
-            return map;
-        }).collect(Collectors.toList());
+        List<PendingImageResponse> result = images.stream()
+                .map(image -> PendingImageResponse.from(image, presign(image.filePath())))
+                .toList();
 
-        return ResponseEntity.ok(enrichedImages);
+        return ResponseEntity.ok(result);
     }
 
     /**
@@ -171,37 +243,49 @@ public class ReportController {
         return ResponseEntity.ok().build();
     }
 
-    private Map<String, Object> enrichReport(Report report) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", report.getId());
-        map.put("droneImageId", report.getDroneImageId());
-        map.put("earthquakeId", report.getEarthquakeId());
-        map.put("eventName", report.getEventName());
-        map.put("droneId", report.getDroneId());
-        map.put("droneName", report.getDroneName());
-        map.put("location", report.getLocation());
-        map.put("imageName", report.getImageName());
-        map.put("title", report.getTitle());
-        map.put("report", report.getReport());
-        map.put("collapsedBuildings", report.getCollapsedBuildings());
-        map.put("damagedStructures", report.getDamagedStructures());
-        map.put("blockedRoads", report.getBlockedRoads());
-        map.put("severityScore", report.getSeverityScore());
-        map.put("status", report.getStatus().name().toLowerCase());
-        map.put("createdAt", report.getCreatedAt());
-
-        if (report.getDroneImageId() != null) {
-            droneImageService.getById(report.getDroneImageId()).ifPresent(image -> {
-                try {
-                    String imageUrl = awsFileService.generateGetPresignedUrl(image.getFilePath());
-                    map.put("imageUrl", imageUrl);
-                } catch (Exception e) {
-                    map.put("imageUrl", null);
-                }
-            });
+    private ReportResponse toResponse(Report report) {
+        return toResponses(List.of(report)).get(0);
+    }
+
+    private List<ReportResponse> toResponses(List<Report> reports) {
+        Map<UUID, String> imageUrls = resolveImageUrls(reports);
+        return reports.stream()
+                .map(report -> ReportResponse.from(report, imageUrls.get(report.getId())))
+                .toList();
+    }
+
+    /**
+     * Sign image URLs for a page of reports in one pass, keyed by report id. Reports
+     * created before filePath was stored on the report fall back to a single batched
+     * drone image lookup.
+     */
+    private Map<UUID, String> resolveImageUrls(List<Report> reports) {
+        Set<UUID> missingPaths = reports.stream()
+                .filter(report -> report.getFilePath() == null && report.getDroneImageId() != null)
+                .map(Report::getDroneImageId)
+                .collect(Collectors.toSet());
+
+        Map<UUID, String> imagePaths = droneImageService.getByIds(missingPaths).stream()
+                .collect(Collectors.toMap(DroneImage::getId, DroneImage::getFilePath));
+
+        Map<UUID, String> imageUrls = new HashMap<>();
+        for (Report report : reports) {
+            String filePath = report.getFilePath() != null
+                    ? report.getFilePath()
+                    : imagePaths.get(report.getDroneImageId());
+            if (filePath != null) {
+                imageUrls.put(report.getId(), presign(filePath));
+            }
         }
+        return imageUrls;
+    }
 
-        return map;
+    private String presign(String filePath) {
+        try {
+            return awsFileService.generateGetPresignedUrl(filePath);
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     public static class CreateReportRequest {
@@ -213,5 +297,7 @@ public class ReportController {
         public Integer damagedStructures;
         public Integer blockedRoads;
         public Double severityScore;
+        public Double latitude;
+        public Double longitude;
     }
 }
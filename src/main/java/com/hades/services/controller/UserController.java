@@ -1,17 +1,29 @@
 package com.hades.services.controller;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.UserRecord;
 import com.hades.services.model.Role;
 import com.hades.services.model.User;
+import com.hades.services.model.UserPage;
+import com.hades.services.model.UserSummary;
+import com.hades.services.service.IdentityProvider;
+import com.hades.services.service.IdentityProviderException;
+import com.hades.services.service.PasswordGenerator;
+import com.hades.services.service.UserImportService;
 import com.hades.services.service.UserService;
 import jakarta.annotation.security.RolesAllowed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
-import java.security.SecureRandom;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
 @RestController
@@ -20,61 +32,53 @@ import java.util.*;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final IdentityProvider identityProvider;
 
-    private static final String CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghjkmnpqrstuvwxyz23456789";
-    private static final SecureRandom RANDOM = new SecureRandom();
-
-    private String generatePassword(int length) {
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            sb.append(CHARS.charAt(RANDOM.nextInt(CHARS.length())));
-        }
-        return sb.toString();
-    }
-
-    private Map<String, Object> userToMap(User u) {
-        Map<String, Object> userMap = new HashMap<>();
-        userMap.put("id", u.getId());
-        userMap.put("name", u.getName());
-        userMap.put("email", u.getEmail());
-        userMap.put("role", u.getRole().name());
-        userMap.put("phone", u.getPhone());
-        userMap.put("organization", u.getOrganization());
-        userMap.put("address", u.getAddress());
-        return userMap;
-    }
+    private static final int MAX_PAGE_SIZE = 200;
 
     @GetMapping
     @RolesAllowed({ "ADMIN", "MANAGER" })
-    public ResponseEntity<?> getAll(@AuthenticationPrincipal String uid) {
+    public ResponseEntity<?> getAll(
+            @AuthenticationPrincipal String uid,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String organization,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         Optional<User> currentUserOpt = userService.findByFirebaseUid(uid);
         if (currentUserOpt.isEmpty()) {
             return ResponseEntity.status(401).body("Unauthorized");
         }
         User currentUser = currentUserOpt.get();
 
-        List<User> users;
+        Set<Role> roles;
+        String org;
         if (currentUser.getRole() == Role.ADMIN) {
             // ADMIN sees all users
-            users = userService.getAll();
+            roles = EnumSet.allOf(Role.class);
+            org = organization;
         } else {
             // MANAGER sees only users in their organization (excluding ADMINs and other
             // MANAGERs)
-            String org = currentUser.getOrganization();
+            roles = EnumSet.complementOf(EnumSet.of(Role.ADMIN, Role.MANAGER));
+            org = currentUser.getOrganization();
             if (org == null || org.isEmpty()) {
-                return ResponseEntity.ok(new ArrayList<>());
+                return ResponseEntity.ok(new UserPage(List.of(), page, 0, 0, false));
             }
-            users = userService.getByOrganization(org).stream()
-                    .filter(u -> u.getRole() != Role.ADMIN && u.getRole() != Role.MANAGER)
-                    .toList();
         }
-
-        List<Map<String, Object>> result = new ArrayList<>();
-        for (User u : users) {
-            result.add(userToMap(u));
+        if (role != null) {
+            roles.retainAll(EnumSet.of(role));
+            if (roles.isEmpty()) {
+                return ResponseEntity.ok(new UserPage(List.of(), page, 0, 0, false));
+            }
         }
 
-        return ResponseEntity.ok(result);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.clamp(size, 1, MAX_PAGE_SIZE),
+                Sort.by("name", "id"));
+        Page<UserSummary> users = userService.search(roles, org, search, pageable);
+        return ResponseEntity.ok(new UserPage(users.getContent(), users.getNumber(), users.getTotalPages(),
+                users.getTotalElements(), users.hasNext()));
     }
 
     @GetMapping("/{id}")
@@ -101,7 +105,7 @@ public class UserController {
             }
         }
 
-        return ResponseEntity.ok(userToMap(targetUser));
+        return ResponseEntity.ok(UserSummary.from(targetUser));
     }
 
     @PostMapping
@@ -114,19 +118,13 @@ public class UserController {
             Role role = Role.valueOf(roleStr);
 
             // Generate random password
-            String password = generatePassword(12);
+            String password = PasswordGenerator.generate(12);
 
-            // Create user in Firebase
-            UserRecord.CreateRequest request = new UserRecord.CreateRequest()
-                    .setEmail(email)
-                    .setPassword(password)
-                    .setDisplayName(name)
-                    .setEmailVerified(true);
-
-            UserRecord firebaseUser = FirebaseAuth.getInstance().createUser(request);
+            // Create user in the identity provider
+            String firebaseUid = identityProvider.createUser(email, password, name);
 
             // Save user to local database
-            User user = new User(name, email, firebaseUser.getUid(), role);
+            User user = new User(name, email, firebaseUid, role);
             User savedUser = userService.save(user);
 
             // Return user info with password (only shown once)
@@ -140,6 +138,12 @@ public class UserController {
             return ResponseEntity.ok(result);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid role: " + payload.get("role"));
+        } catch (IdentityProviderException e) {
+            if (e.getReason() == IdentityProviderException.Reason.ALREADY_EXISTS) {
+                return ResponseEntity.status(409).body("Email already registered");
+            }
+            System.err.println("Failed to create user: " + e.getMessage());
+            return ResponseEntity.status(500).body("Failed to create user: " + e.getMessage());
         } catch (Exception e) {
             System.err.println("Failed to create user: " + e.getMessage());
             e.printStackTrace();
@@ -147,6 +151,32 @@ public class UserController {
         }
     }
 
+    /**
+     * Bulk-create users from a CSV (with header row) or NDJSON upload. Each
+     * row's outcome, including the one-time password of created users, is
+     * streamed back as an NDJSON line as soon as it is known.
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    @RolesAllowed("ADMIN")
+    public ResponseEntity<?> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        UserImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+        UserImportService.Batch batch;
+        try {
+            batch = userImportService.parse(body, format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        ResponseBodyEmitter emitter = userImportService.start(batch);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(emitter);
+    }
+
     @PutMapping("/{id}/role")
     @RolesAllowed({ "ADMIN", "MANAGER" })
     public ResponseEntity<?> updateRole(@PathVariable UUID id, @RequestBody Map<String, String> payload,
@@ -195,14 +225,7 @@ public class UserController {
             }
 
             User updated = userService.updateRole(id, newRole);
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("id", updated.getId());
-            result.put("name", updated.getName());
-            result.put("email", updated.getEmail());
-            result.put("role", updated.getRole().name());
-
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok(UserSummary.from(updated));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid role: " + payload.get("role"));
         } catch (RuntimeException e) {
@@ -250,7 +273,7 @@ public class UserController {
             }
 
             User updated = userService.updateOrganization(id, newOrganization);
-            return ResponseEntity.ok(userToMap(updated));
+            return ResponseEntity.ok(UserSummary.from(updated));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -315,17 +338,7 @@ public class UserController {
             }
 
             User updated = userService.updateProfile(id, name, phone, newOrganization, address);
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("id", updated.getId());
-            result.put("name", updated.getName());
-            result.put("email", updated.getEmail());
-            result.put("role", updated.getRole().name());
-            result.put("phone", updated.getPhone());
-            result.put("organization", updated.getOrganization());
-            result.put("address", updated.getAddress());
-
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok(UserSummary.from(updated));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
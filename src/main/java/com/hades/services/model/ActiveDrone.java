@@ -0,0 +1,6 @@
+package com.hades.services.model;
+
+import java.util.UUID;
+
+public record ActiveDrone(UUID id, String name, String model) {
+}
@@ -0,0 +1,46 @@
+package com.hades.services.model;
+
+/**
+ * Map viewport parsed from a {@code bbox=minLon,minLat,maxLon,maxLat} query parameter.
+ */
+public record BoundingBox(double minLon, double minLat, double maxLon, double maxLat) {
+
+    public static BoundingBox parse(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+        }
+        double minLon = Double.parseDouble(parts[0].trim());
+        double minLat = Double.parseDouble(parts[1].trim());
+        double maxLon = Double.parseDouble(parts[2].trim());
+        double maxLat = Double.parseDouble(parts[3].trim());
+        // Negated range checks so NaN, which fails every comparison, is rejected too
+        if (!inRange(minLon, 180) || !inRange(maxLon, 180) || !inRange(minLat, 90) || !inRange(maxLat, 90)) {
+            throw new IllegalArgumentException("bbox longitudes must be within [-180, 180] and latitudes within [-90, 90]");
+        }
+        if (minLon > maxLon || minLat > maxLat) {
+            throw new IllegalArgumentException("bbox minimums must not exceed maximums");
+        }
+        return new BoundingBox(minLon, minLat, maxLon, maxLat);
+    }
+
+    private static boolean inRange(double value, double limit) {
+        return value >= -limit && value <= limit;
+    }
+
+    /**
+     * Cap the number of markers for a viewport: zoomed-out views cover more ground,
+     * so they get fewer points rather than a full page of every image in a city.
+     */
+    public static int limitForZoom(Integer zoom, int requested) {
+        int cap;
+        if (zoom == null || zoom < 12) {
+            cap = 250;
+        } else if (zoom < 15) {
+            cap = 1000;
+        } else {
+            cap = 2500;
+        }
+        return Math.max(1, Math.min(requested, cap));
+    }
+}
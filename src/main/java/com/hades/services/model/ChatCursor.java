@@ -0,0 +1,44 @@
+package com.hades.services.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position in chat history: the (timestamp, id) of a row.
+ * Encoded as URL-safe base64 so clients treat it as a token.
+ */
+public record ChatCursor(LocalDateTime timestamp, UUID id) {
+
+    // Largest uuid in PostgreSQL ordering, so (since, MAX_ID) skips every row at 'since'
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    public static ChatCursor of(ChatMessage message) {
+        return new ChatCursor(message.getTimestamp(), message.getId());
+    }
+
+    public static ChatCursor of(ChatSession session) {
+        return new ChatCursor(session.getCreatedAt(), session.getId());
+    }
+
+    /** Cursor positioned after every row stamped at or before {@code since}. */
+    public static ChatCursor since(LocalDateTime since) {
+        return new ChatCursor(since, MAX_ID);
+    }
+
+    public static ChatCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('_');
+            return new ChatCursor(LocalDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = timestamp + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,14 @@
+package com.hades.services.model;
+
+import java.util.List;
+
+/**
+ * A window of chat history in ascending time order. {@code before} loads
+ * older messages, {@code after} polls for newer ones.
+ */
+public record ChatMessagePage(
+        List<ChatMessageResponse> messages,
+        String before,
+        String after,
+        boolean hasMore) {
+}
@@ -0,0 +1,16 @@
+package com.hades.services.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ChatMessageResponse(UUID id, String role, String content, String imageUrl, LocalDateTime timestamp) {
+
+    public static ChatMessageResponse from(ChatMessage message) {
+        return new ChatMessageResponse(
+                message.getId(),
+                message.getRole(),
+                message.getContent(),
+                message.getImageUrl(),
+                message.getTimestamp());
+    }
+}
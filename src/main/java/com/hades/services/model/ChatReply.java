@@ -0,0 +1,4 @@
+package com.hades.services.model;
+
+public record ChatReply(String response) {
+}
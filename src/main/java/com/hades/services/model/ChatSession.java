@@ -4,19 +4,23 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "chat_sessions")
+@Table(name = "chat_sessions", indexes = {
+        @Index(name = "idx_chat_sessions_user_created", columnList = "user_id, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class ChatSession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @Column(nullable = false)
@@ -28,6 +32,13 @@ public class ChatSession {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Maintained by ChatSessionRepository.recordMessages so listing never counts rows
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int messageCount;
+
+    private LocalDateTime lastMessageAt;
+
     public ChatSession(UUID userId, String title) {
         this.userId = userId;
         this.title = title;
@@ -0,0 +1,9 @@
+package com.hades.services.model;
+
+import java.util.List;
+
+public record ChatSessionPage(
+        List<ChatSessionResponse> sessions,
+        String before,
+        boolean hasMore) {
+}
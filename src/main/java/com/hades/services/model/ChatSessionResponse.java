@@ -0,0 +1,17 @@
+package com.hades.services.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ChatSessionResponse(
+        UUID id,
+        String title,
+        LocalDateTime createdAt,
+        int messageCount,
+        LocalDateTime lastMessageAt) {
+
+    public static ChatSessionResponse from(ChatSession session) {
+        return new ChatSessionResponse(session.getId(), session.getTitle(), session.getCreatedAt(),
+                session.getMessageCount(), session.getLastMessageAt());
+    }
+}
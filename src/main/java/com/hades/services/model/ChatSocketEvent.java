@@ -0,0 +1,24 @@
+package com.hades.services.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** Server frame on the chat WebSocket: {@code token}, {@code done}, {@code error} or {@code pong}. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatSocketEvent(String type, String requestId, String token, String response, String error) {
+
+    public static ChatSocketEvent token(String requestId, String token) {
+        return new ChatSocketEvent("token", requestId, token, null, null);
+    }
+
+    public static ChatSocketEvent done(String requestId, String response) {
+        return new ChatSocketEvent("done", requestId, null, response, null);
+    }
+
+    public static ChatSocketEvent error(String requestId, String error) {
+        return new ChatSocketEvent("error", requestId, null, null, error);
+    }
+
+    public static ChatSocketEvent pong() {
+        return new ChatSocketEvent("pong", null, null, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hades.services.model;
+
+import java.util.UUID;
+
+/** Client frame on the chat WebSocket: {@code message} or {@code ping}. */
+public record ChatSocketRequest(String type, String requestId, UUID sessionId, String message, String image) {
+}
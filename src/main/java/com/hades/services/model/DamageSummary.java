@@ -0,0 +1,12 @@
+package com.hades.services.model;
+
+import java.util.List;
+import java.util.UUID;
+
+public record DamageSummary(
+        UUID earthquakeId,
+        Integer collapsed,
+        Integer damaged,
+        Integer blocked,
+        List<NeighborhoodDamage> neighborhoods) {
+}
@@ -1,6 +1,10 @@
 package com.hades.services.model;
 
+import com.hades.services.cache.DataVersionListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -8,6 +12,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(DataVersionListener.class)
 @Table(name = "drones")
 @Data
 @NoArgsConstructor
@@ -18,7 +25,7 @@ public class Drone {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @Column(nullable = false)
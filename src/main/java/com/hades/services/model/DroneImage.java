@@ -1,14 +1,21 @@
 package com.hades.services.model;
 
+import com.hades.services.cache.DataVersionListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "drone_images")
+@EntityListeners(DataVersionListener.class)
+@Table(name = "drone_images", indexes = {
+        @Index(name = "idx_drone_images_earthquake", columnList = "earthquake_id, uploaded_at"),
+        @Index(name = "idx_drone_images_drone", columnList = "drone_id, uploaded_at"),
+        @Index(name = "idx_drone_images_uploaded", columnList = "uploaded_at")
+})
 @Data
 @NoArgsConstructor
 public class DroneImage {
@@ -18,7 +25,7 @@ public class DroneImage {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @Column(nullable = false)
@@ -46,6 +53,11 @@ public class DroneImage {
 
     private String analysisResult;
 
+    // WGS84 coordinates where the image was taken, when the drone reports them
+    private Double latitude;
+
+    private Double longitude;
+
     private LocalDateTime uploadedAt = LocalDateTime.now();
 
     private UUID uploadedBy;
@@ -0,0 +1,11 @@
+package com.hades.services.model;
+
+import java.util.List;
+
+public record DroneImagePage(
+        List<DroneImageResponse> images,
+        long totalElements,
+        int page,
+        int size,
+        boolean hasMore) {
+}
@@ -0,0 +1,33 @@
+package com.hades.services.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DroneImageResponse(
+        UUID id,
+        UUID earthquakeId,
+        UUID droneId,
+        String neighborhood,
+        String fileName,
+        String filePath,
+        LocalDateTime uploadedAt,
+        DroneImage.ImageStatus status,
+        Double latitude,
+        Double longitude,
+        String imageUrl) {
+
+    public static DroneImageResponse from(DroneImage image, String imageUrl) {
+        return new DroneImageResponse(
+                image.getId(),
+                image.getEarthquakeId(),
+                image.getDroneId(),
+                image.getNeighborhood(),
+                image.getFileName(),
+                image.getFilePath(),
+                image.getUploadedAt(),
+                image.getStatus(),
+                image.getLatitude(),
+                image.getLongitude(),
+                imageUrl);
+    }
+}
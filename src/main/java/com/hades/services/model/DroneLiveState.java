@@ -0,0 +1,19 @@
+package com.hades.services.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record DroneLiveState(UUID droneId, Integer battery, Integer altitude, Double latitude, Double longitude,
+        Instant reportedAt) {
+
+    /** Applies a newer sample on top of this state, keeping fields the sample leaves out. */
+    public DroneLiveState merge(TelemetrySample sample, Instant at) {
+        return new DroneLiveState(
+                droneId,
+                sample.battery() != null ? sample.battery() : battery,
+                sample.altitude() != null ? sample.altitude() : altitude,
+                sample.latitude() != null ? sample.latitude() : latitude,
+                sample.longitude() != null ? sample.longitude() : longitude,
+                at);
+    }
+}
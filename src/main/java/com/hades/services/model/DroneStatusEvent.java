@@ -0,0 +1,48 @@
+package com.hades.services.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Dashboard view of one drone on the status stream. The earthquake of the
+ * latest image stands in for the drone's current deployment.
+ */
+public record DroneStatusEvent(
+        UUID droneId,
+        String name,
+        Drone.DroneStatus status,
+        Integer battery,
+        Integer altitude,
+        Double latitude,
+        Double longitude,
+        Instant reportedAt,
+        UUID lastImageId,
+        UUID earthquakeId,
+        LocalDateTime lastImageAt) {
+
+    public static DroneStatusEvent of(Drone drone) {
+        return new DroneStatusEvent(drone.getId(), drone.getName(), drone.getStatus(), drone.getBattery(),
+                drone.getAltitude(), null, null, null, null, null, null);
+    }
+
+    public DroneStatusEvent withDrone(Drone drone) {
+        return new DroneStatusEvent(droneId, drone.getName(), drone.getStatus(), drone.getBattery(),
+                drone.getAltitude(), latitude, longitude, reportedAt, lastImageId, earthquakeId, lastImageAt);
+    }
+
+    /** Fields the drone has not reported yet keep their current values. */
+    public DroneStatusEvent withTelemetry(DroneLiveState live) {
+        return new DroneStatusEvent(droneId, name, status,
+                live.battery() != null ? live.battery() : battery,
+                live.altitude() != null ? live.altitude() : altitude,
+                live.latitude() != null ? live.latitude() : latitude,
+                live.longitude() != null ? live.longitude() : longitude,
+                live.reportedAt(), lastImageId, earthquakeId, lastImageAt);
+    }
+
+    public DroneStatusEvent withImage(DroneImage image) {
+        return new DroneStatusEvent(droneId, name, status, battery, altitude, latitude, longitude, reportedAt,
+                image.getId(), image.getEarthquakeId(), image.getUploadedAt());
+    }
+}
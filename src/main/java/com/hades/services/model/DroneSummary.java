@@ -0,0 +1,22 @@
+package com.hades.services.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Drone listing row with its drone image count and latest upload time.
+ */
+public record DroneSummary(
+        UUID id,
+        String name,
+        String model,
+        String serialNumber,
+        Drone.DroneStatus status,
+        Integer battery,
+        Integer altitude,
+        LocalDateTime lastUsed,
+        LocalDateTime createdAt,
+        UUID createdBy,
+        Long imageCount,
+        LocalDateTime latestImageAt) {
+}
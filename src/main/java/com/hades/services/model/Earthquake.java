@@ -1,6 +1,10 @@
 package com.hades.services.model;
 
+import com.hades.services.cache.DataVersionListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -10,6 +14,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(DataVersionListener.class)
 @Table(name = "earthquakes")
 @Getter
 @Setter
@@ -17,7 +24,7 @@ import java.util.UUID;
 public class Earthquake {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @Column(nullable = false)
@@ -36,13 +43,14 @@ public class Earthquake {
     @Enumerated(EnumType.STRING)
     private EarthquakeStatus status = EarthquakeStatus.PENDING;
 
-    @Column(nullable = false)
+    // Derived from reports: only DamageAggregateService's delta UPDATE and rebuild() write these
+    @Column(nullable = false, updatable = false)
     private Integer collapsed = 0;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer damaged = 0;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer blocked = 0;
 
     @Column(nullable = false)
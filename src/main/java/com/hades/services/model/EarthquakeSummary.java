@@ -0,0 +1,23 @@
+package com.hades.services.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Earthquake listing row with its drone image count and latest upload time.
+ */
+public record EarthquakeSummary(
+        UUID id,
+        String name,
+        Double magnitude,
+        String location,
+        LocalDate date,
+        Earthquake.EarthquakeStatus status,
+        Integer collapsed,
+        Integer damaged,
+        Integer blocked,
+        LocalDateTime createdAt,
+        Long images,
+        LocalDateTime latestImageAt) {
+}
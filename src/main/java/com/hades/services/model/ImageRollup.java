@@ -0,0 +1,7 @@
+package com.hades.services.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ImageRollup(LocalDateTime bucket, UUID droneId, long count) {
+}
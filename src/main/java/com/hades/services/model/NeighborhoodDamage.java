@@ -0,0 +1,50 @@
+package com.hades.services.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Running damage totals per earthquake and neighborhood, maintained incrementally
+ * from report inserts and deletes (see DamageAggregateService).
+ */
+@Entity
+@Table(name = "neighborhood_damage")
+@IdClass(NeighborhoodDamage.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class NeighborhoodDamage {
+
+    @Id
+    private UUID earthquakeId;
+
+    @Id
+    private String neighborhood;
+
+    @Column(nullable = false)
+    private Long reportCount = 0L;
+
+    @Column(nullable = false)
+    private Long collapsed = 0L;
+
+    @Column(nullable = false)
+    private Long damaged = 0L;
+
+    @Column(nullable = false)
+    private Long blocked = 0L;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID earthquakeId;
+        private String neighborhood;
+    }
+}
@@ -0,0 +1,22 @@
+package com.hades.services.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A drone image that has no report yet, joined with the names of its
+ * earthquake and drone.
+ */
+public record PendingImage(
+        UUID id,
+        UUID earthquakeId,
+        UUID droneId,
+        String neighborhood,
+        String fileName,
+        String filePath,
+        LocalDateTime uploadedAt,
+        String earthquakeName,
+        String earthquakeLocation,
+        Double earthquakeMagnitude,
+        String droneName) {
+}
@@ -0,0 +1,35 @@
+package com.hades.services.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record PendingImageResponse(
+        UUID id,
+        UUID earthquakeId,
+        UUID droneId,
+        String neighborhood,
+        String fileName,
+        String filePath,
+        LocalDateTime uploadedAt,
+        String earthquakeName,
+        String earthquakeLocation,
+        Double earthquakeMagnitude,
+        String droneName,
+        String imageUrl) {
+
+    public static PendingImageResponse from(PendingImage image, String imageUrl) {
+        return new PendingImageResponse(
+                image.id(),
+                image.earthquakeId(),
+                image.droneId(),
+                image.neighborhood(),
+                image.fileName(),
+                image.filePath(),
+                image.uploadedAt(),
+                image.earthquakeName(),
+                image.earthquakeLocation(),
+                image.earthquakeMagnitude(),
+                image.droneName(),
+                imageUrl);
+    }
+}
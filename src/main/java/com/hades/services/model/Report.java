@@ -1,21 +1,28 @@
 package com.hades.services.model;
 
+import com.hades.services.cache.DataVersionListener;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "reports")
+@EntityListeners(DataVersionListener.class)
+@Table(name = "reports", indexes = {
+        @Index(name = "idx_reports_earthquake_created", columnList = "earthquake_id, created_at"),
+        @Index(name = "idx_reports_created", columnList = "created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,10 +33,11 @@ public class Report {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     // Link to the drone image this report is for
+    @Column(unique = true)
     private UUID droneImageId;
 
     // Associated earthquake and event info
@@ -45,6 +53,13 @@ public class Report {
     private String imageName;
     private String imageUrl;
 
+    // S3 key of the drone image, copied at creation so listings can sign URLs without a join
+    private String filePath;
+
+    // WGS84 coordinates, taken from the drone image unless the report overrides them
+    private Double latitude;
+    private Double longitude;
+
     // Report content
     private String title;
     private String description;
@@ -0,0 +1,11 @@
+package com.hades.services.model;
+
+import java.util.List;
+
+public record ReportPage(
+        List<ReportResponse> reports,
+        int currentPage,
+        int totalPages,
+        long totalElements,
+        boolean hasMore) {
+}
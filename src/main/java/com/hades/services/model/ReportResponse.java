@@ -0,0 +1,62 @@
+package com.hades.services.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Report as returned by the API. rank and snippet are only present for search results.
+ */
+public record ReportResponse(
+        UUID id,
+        UUID droneImageId,
+        UUID earthquakeId,
+        String eventName,
+        UUID droneId,
+        String droneName,
+        String location,
+        String imageName,
+        String title,
+        String report,
+        Integer collapsedBuildings,
+        Integer damagedStructures,
+        Integer blockedRoads,
+        Double severityScore,
+        String status,
+        LocalDateTime createdAt,
+        Double latitude,
+        Double longitude,
+        String imageUrl,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Float rank,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String snippet) {
+
+    public static ReportResponse from(Report report, String imageUrl) {
+        return from(report, imageUrl, null, null);
+    }
+
+    public static ReportResponse from(Report report, String imageUrl, Float rank, String snippet) {
+        return new ReportResponse(
+                report.getId(),
+                report.getDroneImageId(),
+                report.getEarthquakeId(),
+                report.getEventName(),
+                report.getDroneId(),
+                report.getDroneName(),
+                report.getLocation(),
+                report.getImageName(),
+                report.getTitle(),
+                report.getReport(),
+                report.getCollapsedBuildings(),
+                report.getDamagedStructures(),
+                report.getBlockedRoads(),
+                report.getSeverityScore(),
+                report.getStatus().name().toLowerCase(),
+                report.getCreatedAt(),
+                report.getLatitude(),
+                report.getLongitude(),
+                imageUrl,
+                rank,
+                snippet);
+    }
+}
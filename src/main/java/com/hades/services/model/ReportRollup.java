@@ -0,0 +1,6 @@
+package com.hades.services.model;
+
+import java.time.LocalDateTime;
+
+public record ReportRollup(LocalDateTime bucket, String severityBand, long count) {
+}
@@ -0,0 +1,14 @@
+package com.hades.services.model;
+
+import java.util.UUID;
+
+/**
+ * Full-text search match: report id, ts_rank relevance and a highlighted snippet.
+ */
+public interface ReportSearchHit {
+    UUID getId();
+
+    Float getRank();
+
+    String getSnippet();
+}
@@ -0,0 +1,7 @@
+package com.hades.services.model;
+
+/**
+ * A report returned by full-text search with its relevance and highlighted snippet.
+ */
+public record ReportSearchResult(Report report, Float rank, String snippet) {
+}
@@ -0,0 +1,7 @@
+package com.hades.services.model;
+
+import java.time.Instant;
+
+/** One raw sample, or the average of {@code samples} readings in a downsampled bucket. */
+public record TelemetryPoint(Instant timestamp, Double battery, Double altitude, int samples) {
+}
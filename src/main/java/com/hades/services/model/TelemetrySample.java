@@ -0,0 +1,8 @@
+package com.hades.services.model;
+
+import java.time.Instant;
+
+/** One drone reading; null fields leave the previous value in place. */
+public record TelemetrySample(Instant timestamp, Integer battery, Integer altitude, Double latitude,
+        Double longitude) {
+}
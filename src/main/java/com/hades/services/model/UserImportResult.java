@@ -0,0 +1,39 @@
+package com.hades.services.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one import row. {@code password} is only present for
+ * {@code CREATED} rows and is never stored or shown again.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserImportResult(
+        int line,
+        String email,
+        Status status,
+        UUID id,
+        String password,
+        String error) {
+
+    public enum Status {
+        CREATED, EXISTS, INVALID, FAILED
+    }
+
+    public static UserImportResult created(UserImportRow row, UUID id, String password) {
+        return new UserImportResult(row.line(), row.email(), Status.CREATED, id, password, null);
+    }
+
+    public static UserImportResult exists(UserImportRow row, String error) {
+        return new UserImportResult(row.line(), row.email(), Status.EXISTS, null, null, error);
+    }
+
+    public static UserImportResult invalid(int line, String email, String error) {
+        return new UserImportResult(line, email, Status.INVALID, null, null, error);
+    }
+
+    public static UserImportResult failed(UserImportRow row, String error) {
+        return new UserImportResult(row.line(), row.email(), Status.FAILED, null, null, error);
+    }
+}
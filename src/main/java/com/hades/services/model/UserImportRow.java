@@ -0,0 +1,13 @@
+package com.hades.services.model;
+
+/**
+ * One validated line of a bulk user import; {@code line} is 1-based in the uploaded file.
+ */
+public record UserImportRow(
+        int line,
+        String name,
+        String email,
+        Role role,
+        String organization,
+        String phone) {
+}
@@ -0,0 +1,11 @@
+package com.hades.services.model;
+
+import java.util.List;
+
+public record UserPage(
+        List<UserSummary> users,
+        int currentPage,
+        int totalPages,
+        long totalElements,
+        boolean hasMore) {
+}
@@ -0,0 +1,27 @@
+package com.hades.services.model;
+
+import java.util.UUID;
+
+/**
+ * User fields exposed to administrators; also used as a repository projection.
+ */
+public record UserSummary(
+        UUID id,
+        String name,
+        String email,
+        Role role,
+        String phone,
+        String organization,
+        String address) {
+
+    public static UserSummary from(User user) {
+        return new UserSummary(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                user.getRole(),
+                user.getPhone(),
+                user.getOrganization(),
+                user.getAddress());
+    }
+}
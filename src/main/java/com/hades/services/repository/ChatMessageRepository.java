@@ -2,14 +2,33 @@ package com.hades.services.repository;
 
 import com.hades.services.model.ChatMessage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, UUID> {
-    List<ChatMessage> findBySessionIdOrderByTimestampAsc(UUID sessionId);
+    // Keyset pages: row comparisons on (timestamp, id) stay a single range scan of idx_chat_messages_session_time
+
+    @Query(value = "SELECT * FROM chat_messages m WHERE m.session_id = :sessionId "
+            + "ORDER BY m.timestamp DESC, m.id DESC LIMIT :limit", nativeQuery = true)
+    List<ChatMessage> findLatest(@Param("sessionId") UUID sessionId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM chat_messages m WHERE m.session_id = :sessionId "
+            + "AND (m.timestamp, m.id) < (:timestamp, :id) "
+            + "ORDER BY m.timestamp DESC, m.id DESC LIMIT :limit", nativeQuery = true)
+    List<ChatMessage> findBefore(@Param("sessionId") UUID sessionId, @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") UUID id, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM chat_messages m WHERE m.session_id = :sessionId "
+            + "AND (m.timestamp, m.id) > (:timestamp, :id) "
+            + "ORDER BY m.timestamp ASC, m.id ASC LIMIT :limit", nativeQuery = true)
+    List<ChatMessage> findAfter(@Param("sessionId") UUID sessionId, @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") UUID id, @Param("limit") int limit);
 
     void deleteBySessionId(UUID sessionId);
 }
@@ -2,12 +2,35 @@ package com.hades.services.repository;
 
 import com.hades.services.model.ChatSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ChatSessionRepository extends JpaRepository<ChatSession, UUID> {
-    List<ChatSession> findByUserIdOrderByCreatedAtDesc(UUID userId);
+    @Query(value = "SELECT * FROM chat_sessions s WHERE s.user_id = :userId "
+            + "ORDER BY s.created_at DESC, s.id DESC LIMIT :limit", nativeQuery = true)
+    List<ChatSession> findRecent(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM chat_sessions s WHERE s.user_id = :userId "
+            + "AND (s.created_at, s.id) < (:createdAt, :id) "
+            + "ORDER BY s.created_at DESC, s.id DESC LIMIT :limit", nativeQuery = true)
+    List<ChatSession> findBefore(@Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, @Param("limit") int limit);
+
+    /**
+     * Bumps the message counter and last-message time in one statement, and
+     * sets the title only while the session is still empty.
+     */
+    @Modifying
+    @Query("UPDATE ChatSession s SET s.messageCount = s.messageCount + :added, s.lastMessageAt = :at, "
+            + "s.title = CASE WHEN s.messageCount = 0 THEN COALESCE(:title, s.title) ELSE s.title END "
+            + "WHERE s.id = :id")
+    int recordMessages(@Param("id") UUID id, @Param("added") int added, @Param("at") LocalDateTime at,
+            @Param("title") String title);
 }
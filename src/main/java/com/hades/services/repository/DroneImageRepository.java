@@ -1,7 +1,12 @@
 package com.hades.services.repository;
 
 import com.hades.services.model.DroneImage;
+import com.hades.services.model.PendingImage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
@@ -15,7 +20,40 @@ public interface DroneImageRepository extends JpaRepository<DroneImage, UUID> {
 
     List<DroneImage> findAllByOrderByUploadedAtDesc();
 
+    // Paginated queries
+    Page<DroneImage> findAllByOrderByUploadedAtDesc(Pageable pageable);
+
+    Page<DroneImage> findByEarthquakeIdOrderByUploadedAtDesc(UUID earthquakeId, Pageable pageable);
+
+    Page<DroneImage> findByDroneIdOrderByUploadedAtDesc(UUID droneId, Pageable pageable);
+
     long countByEarthquakeId(UUID earthquakeId);
 
     long countByDroneId(UUID droneId);
+
+    // Viewport query served by the GiST index on point(longitude, latitude), see schema.sql
+    @Query(value = "SELECT * FROM drone_images i WHERE " +
+            "point(i.longitude, i.latitude) <@ box(point(:minLon, :minLat), point(:maxLon, :maxLat)) AND " +
+            "(CAST(:earthquakeId AS uuid) IS NULL OR i.earthquake_id = CAST(:earthquakeId AS uuid)) AND " +
+            "(CAST(:droneId AS uuid) IS NULL OR i.drone_id = CAST(:droneId AS uuid)) " +
+            "ORDER BY i.uploaded_at DESC LIMIT :limit", nativeQuery = true)
+    List<DroneImage> findInBox(
+            @Param("minLon") double minLon,
+            @Param("minLat") double minLat,
+            @Param("maxLon") double maxLon,
+            @Param("maxLat") double maxLat,
+            @Param("earthquakeId") UUID earthquakeId,
+            @Param("droneId") UUID droneId,
+            @Param("limit") int limit);
+
+    // Anti-join against reports, backed by the unique index on reports.drone_image_id
+    @Query("SELECT new com.hades.services.model.PendingImage(" +
+            "i.id, i.earthquakeId, i.droneId, i.neighborhood, i.fileName, i.filePath, i.uploadedAt, " +
+            "e.name, e.location, e.magnitude, d.name) " +
+            "FROM DroneImage i " +
+            "LEFT JOIN Earthquake e ON e.id = i.earthquakeId " +
+            "LEFT JOIN Drone d ON d.id = i.droneId " +
+            "WHERE NOT EXISTS (SELECT 1 FROM Report r WHERE r.droneImageId = i.id) " +
+            "ORDER BY i.uploadedAt DESC")
+    List<PendingImage> findPendingImages(Pageable pageable);
 }
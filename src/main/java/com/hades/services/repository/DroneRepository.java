@@ -1,7 +1,11 @@
 package com.hades.services.repository;
 
+import com.hades.services.model.ActiveDrone;
 import com.hades.services.model.Drone;
+import com.hades.services.model.DroneSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
@@ -12,4 +16,20 @@ public interface DroneRepository extends JpaRepository<Drone, UUID> {
     List<Drone> findAllByOrderByCreatedAtDesc();
 
     List<Drone> findByStatus(Drone.DroneStatus status);
+
+    List<ActiveDrone> findSummariesByStatus(Drone.DroneStatus status);
+
+    String SUMMARY_SELECT = "SELECT new com.hades.services.model.DroneSummary(" +
+            "d.id, d.name, d.model, d.serialNumber, d.status, d.battery, d.altitude, d.lastUsed, " +
+            "d.createdAt, d.createdBy, COUNT(i.id), MAX(i.uploadedAt)) " +
+            "FROM Drone d LEFT JOIN DroneImage i ON i.droneId = d.id ";
+
+    @Query(SUMMARY_SELECT + "GROUP BY d.id ORDER BY d.createdAt DESC")
+    List<DroneSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT +
+            "WHERE LOWER(d.name) LIKE LOWER(:pattern) ESCAPE '\\' " +
+            "OR LOWER(d.model) LIKE LOWER(:pattern) ESCAPE '\\' " +
+            "GROUP BY d.id ORDER BY d.createdAt DESC")
+    List<DroneSummary> searchSummaries(@Param("pattern") String pattern);
 }
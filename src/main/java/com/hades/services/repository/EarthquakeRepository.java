@@ -1,7 +1,11 @@
 package com.hades.services.repository;
 
 import com.hades.services.model.Earthquake;
+import com.hades.services.model.EarthquakeSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +16,27 @@ public interface EarthquakeRepository extends JpaRepository<Earthquake, UUID> {
     List<Earthquake> findByNameContainingIgnoreCaseOrLocationContainingIgnoreCase(String name, String location);
 
     List<Earthquake> findAllByOrderByCreatedAtDesc();
+
+    @Modifying
+    @Query("UPDATE Earthquake e SET e.collapsed = e.collapsed + :collapsed, " +
+            "e.damaged = e.damaged + :damaged, e.blocked = e.blocked + :blocked WHERE e.id = :id")
+    void addDamageDelta(
+            @Param("id") UUID id,
+            @Param("collapsed") int collapsed,
+            @Param("damaged") int damaged,
+            @Param("blocked") int blocked);
+
+    String SUMMARY_SELECT = "SELECT new com.hades.services.model.EarthquakeSummary(" +
+            "e.id, e.name, e.magnitude, e.location, e.date, e.status, e.collapsed, e.damaged, e.blocked, " +
+            "e.createdAt, COUNT(i.id), MAX(i.uploadedAt)) " +
+            "FROM Earthquake e LEFT JOIN DroneImage i ON i.earthquakeId = e.id ";
+
+    @Query(SUMMARY_SELECT + "GROUP BY e.id ORDER BY e.createdAt DESC")
+    List<EarthquakeSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT +
+            "WHERE LOWER(e.name) LIKE LOWER(:pattern) ESCAPE '\\' " +
+            "OR LOWER(e.location) LIKE LOWER(:pattern) ESCAPE '\\' " +
+            "GROUP BY e.id ORDER BY e.createdAt DESC")
+    List<EarthquakeSummary> searchSummaries(@Param("pattern") String pattern);
 }
@@ -0,0 +1,38 @@
+package com.hades.services.repository;
+
+import com.hades.services.model.NeighborhoodDamage;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NeighborhoodDamageRepository extends JpaRepository<NeighborhoodDamage, NeighborhoodDamage.Key> {
+
+    List<NeighborhoodDamage> findByEarthquakeIdOrderByCollapsedDescDamagedDesc(UUID earthquakeId);
+
+    // Native spaces keep Hibernate from invalidating every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "neighborhood_damage"))
+    @Query(value = "INSERT INTO neighborhood_damage " +
+            "(earthquake_id, neighborhood, report_count, collapsed, damaged, blocked) " +
+            "VALUES (:earthquakeId, :neighborhood, :reports, :collapsed, :damaged, :blocked) " +
+            "ON CONFLICT (earthquake_id, neighborhood) DO UPDATE SET " +
+            "report_count = neighborhood_damage.report_count + EXCLUDED.report_count, " +
+            "collapsed = neighborhood_damage.collapsed + EXCLUDED.collapsed, " +
+            "damaged = neighborhood_damage.damaged + EXCLUDED.damaged, " +
+            "blocked = neighborhood_damage.blocked + EXCLUDED.blocked", nativeQuery = true)
+    void addDelta(
+            @Param("earthquakeId") UUID earthquakeId,
+            @Param("neighborhood") String neighborhood,
+            @Param("reports") long reports,
+            @Param("collapsed") long collapsed,
+            @Param("damaged") long damaged,
+            @Param("blocked") long blocked);
+}
@@ -1,6 +1,7 @@
 package com.hades.services.repository;
 
 import com.hades.services.model.Report;
+import com.hades.services.model.ReportSearchHit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -32,17 +33,43 @@ public interface ReportRepository extends JpaRepository<Report, UUID> {
 
     @Query(value = "SELECT * FROM reports r WHERE " +
             "(:eventName IS NULL OR r.event_name = :eventName) AND " +
-            "(:status IS NULL OR r.status = CAST(:status AS VARCHAR)) AND " +
-            "(:search IS NULL OR r.image_name ILIKE CONCAT('%', :search, '%') OR " +
-            "r.location ILIKE CONCAT('%', :search, '%') OR " +
-            "CAST(r.report AS TEXT) ILIKE CONCAT('%', :search, '%')) " +
+            "(:status IS NULL OR r.status = CAST(:status AS VARCHAR)) " +
             "ORDER BY r.created_at DESC", countQuery = "SELECT COUNT(*) FROM reports r WHERE " +
                     "(:eventName IS NULL OR r.event_name = :eventName) AND " +
-                    "(:status IS NULL OR r.status = CAST(:status AS VARCHAR)) AND " +
-                    "(:search IS NULL OR r.image_name ILIKE CONCAT('%', :search, '%') OR " +
-                    "r.location ILIKE CONCAT('%', :search, '%') OR " +
-                    "CAST(r.report AS TEXT) ILIKE CONCAT('%', :search, '%'))", nativeQuery = true)
+                    "(:status IS NULL OR r.status = CAST(:status AS VARCHAR))", nativeQuery = true)
     Page<Report> findWithFilters(
+            @Param("eventName") String eventName,
+            @Param("status") String status,
+            Pageable pageable);
+
+    // Viewport query served by the GiST index on point(longitude, latitude), see schema.sql
+    @Query(value = "SELECT * FROM reports r WHERE " +
+            "point(r.longitude, r.latitude) <@ box(point(:minLon, :minLat), point(:maxLon, :maxLat)) AND " +
+            "(:eventName IS NULL OR r.event_name = :eventName) AND " +
+            "(:status IS NULL OR r.status = CAST(:status AS VARCHAR)) " +
+            "ORDER BY r.created_at DESC LIMIT :limit", nativeQuery = true)
+    List<Report> findInBox(
+            @Param("minLon") double minLon,
+            @Param("minLat") double minLat,
+            @Param("maxLon") double maxLon,
+            @Param("maxLat") double maxLat,
+            @Param("eventName") String eventName,
+            @Param("status") String status,
+            @Param("limit") int limit);
+
+    // Full-text search over the generated search_vector column (GIN indexed, see schema.sql)
+    @Query(value = "SELECT r.id AS id, ts_rank(r.search_vector, q) AS rank, " +
+            "ts_headline('turkish', coalesce(r.report, ''), q, " +
+            "'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5') AS snippet " +
+            "FROM reports r, websearch_to_tsquery('turkish', :search) q WHERE " +
+            "r.search_vector @@ q AND " +
+            "(:eventName IS NULL OR r.event_name = :eventName) AND " +
+            "(:status IS NULL OR r.status = CAST(:status AS VARCHAR)) " +
+            "ORDER BY rank DESC, r.created_at DESC", countQuery = "SELECT COUNT(*) FROM reports r WHERE " +
+                    "r.search_vector @@ websearch_to_tsquery('turkish', :search) AND " +
+                    "(:eventName IS NULL OR r.event_name = :eventName) AND " +
+                    "(:status IS NULL OR r.status = CAST(:status AS VARCHAR))", nativeQuery = true)
+    Page<ReportSearchHit> searchWithFilters(
             @Param("eventName") String eventName,
             @Param("status") String status,
             @Param("search") String search,
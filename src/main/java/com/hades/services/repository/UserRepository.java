@@ -1,9 +1,16 @@
 package com.hades.services.repository;
 
+import com.hades.services.model.Role;
 import com.hades.services.model.User;
+import com.hades.services.model.UserSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,4 +22,23 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByFirebaseUid(String firebaseUid);
 
     List<User> findByOrganization(String organization);
+
+    /** Which of the given lower-cased emails already belong to a user. */
+    @Query("SELECT LOWER(u.email) FROM User u WHERE LOWER(u.email) IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    String SEARCH_FILTER = "FROM User u WHERE u.role IN :roles "
+            + "AND (:organization IS NULL OR u.organization = :organization) "
+            + "AND (:prefix IS NULL OR LOWER(u.name) LIKE :prefix ESCAPE '\\' "
+            + "OR LOWER(u.email) LIKE :prefix ESCAPE '\\')";
+
+    /**
+     * Role, organization and name/email prefix filters, all applied in SQL.
+     * {@code prefix} is a lower-cased LIKE pattern such as {@code 'ay%'}.
+     */
+    @Query(value = "SELECT new com.hades.services.model.UserSummary("
+            + "u.id, u.name, u.email, u.role, u.phone, u.organization, u.address) " + SEARCH_FILTER,
+            countQuery = "SELECT COUNT(u) " + SEARCH_FILTER)
+    Page<UserSummary> search(@Param("roles") Collection<Role> roles, @Param("organization") String organization,
+            @Param("prefix") String prefix, Pageable pageable);
 }
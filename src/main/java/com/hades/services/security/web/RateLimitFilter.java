@@ -0,0 +1,186 @@
+package com.hades.services.security.web;
+
+import com.hades.services.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Per-client token buckets for the routes in {@link RateLimitProperties}.
+ * Clients are keyed by Firebase uid when authenticated, else by remote
+ * address; client-supplied identifiers such as {@code droneId} are never
+ * used, since a fresh value per request would mean a fresh bucket.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the time at which it
+ * would be full again (the GCRA form of a token bucket), so refill is lazy
+ * and taking a token is one CAS. Buckets live in a {@link ConcurrentHashMap}
+ * per rule, whose bins are locked independently, and full buckets are swept
+ * periodically so address floods do not grow the map without bound.
+ *
+ * <p>Registered in the security chain after bearer authentication, see
+ * {@code SecurityConfig}. Traffic that does not pass through the filter, such
+ * as chat socket frames, draws from the same buckets via {@link #tryAcquire}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<Route> routes;
+    private final Map<String, Route> routesByName;
+    private final boolean enabled;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        List<RateLimitProperties.Rule> rules = properties.rules() == null ? List.of() : properties.rules();
+        this.routes = rules.stream().map(rule -> new Route(rule, meterRegistry)).toList();
+        this.routesByName = routes.stream().collect(Collectors.toUnmodifiableMap(route -> route.name, route -> route));
+    }
+
+    /**
+     * Takes one token from the named rule's bucket for a Firebase uid, the
+     * same bucket that rule's HTTP requests from that user draw from.
+     *
+     * @return 0 when allowed, else nanoseconds until a token is available
+     */
+    public long tryAcquire(String ruleName, String firebaseUid) {
+        Route route = enabled ? routesByName.get(ruleName) : null;
+        if (route == null) {
+            return 0;
+        }
+        long waitNanos = route.tryAcquire("uid:" + firebaseUid, System.nanoTime());
+        (waitNanos == 0 ? route.allowed : route.rejected).increment();
+        return waitNanos;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = enabled ? match(request) : null;
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = route.tryAcquire(clientKey(request), System.nanoTime());
+        if (waitNanos == 0) {
+            route.allowed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        route.rejected.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too Many Requests");
+    }
+
+    private Route match(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Route route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return "uid:" + jwt.getSubject();
+        }
+        // The client address as seen past trusted proxies (server.forward-headers-strategy)
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void sweep() {
+        long now = System.nanoTime();
+        // A bucket whose refill time has passed is indistinguishable from a new one
+        routes.forEach(route -> route.buckets.values().removeIf(bucket -> bucket.get() - now <= 0));
+    }
+
+    private static final class Route {
+        private final String name;
+        private final List<PathPattern> patterns;
+        private final Set<String> methods;
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final Counter allowed;
+        private final Counter rejected;
+
+        Route(RateLimitProperties.Rule rule, MeterRegistry meterRegistry) {
+            this.name = rule.name();
+            this.patterns = rule.paths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+            this.methods = rule.methods() == null ? Set.of()
+                    : rule.methods().stream().map(String::toUpperCase).collect(Collectors.toUnmodifiableSet());
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rule.refillPerSecond());
+            this.burstNanos = intervalNanos * rule.capacity();
+            this.allowed = meterRegistry.counter("hades.rate_limit.requests", "rule", rule.name(), "outcome", "allowed");
+            this.rejected = meterRegistry.counter("hades.rate_limit.requests", "rule", rule.name(), "outcome", "rejected");
+            Gauge.builder("hades.rate_limit.clients", buckets, ConcurrentHashMap::size)
+                    .tag("rule", rule.name())
+                    .register(meterRegistry);
+        }
+
+        boolean matches(String method, PathContainer path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            for (PathPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Takes one token; returns 0 on success, else nanoseconds until one is available. */
+        long tryAcquire(String key, long now) {
+            AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            while (true) {
+                long fullAt = bucket.get();
+                long start = fullAt - now < 0 ? now : fullAt;
+                long next = start + intervalNanos;
+                long wait = next - now - burstNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(fullAt, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
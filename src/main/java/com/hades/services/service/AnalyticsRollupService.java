@@ -0,0 +1,207 @@
+package com.hades.services.service;
+
+import com.hades.services.model.ImageRollup;
+import com.hades.services.model.ReportRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rolls reports and drone images up into minute, hour and day buckets so analytics
+ * charts never aggregate the raw tables. A background job folds in rows created
+ * since the last watermark, and deletes subtract their row in the deleting
+ * transaction. Rows committed more than the configured lag after their timestamp
+ * are missed by the incremental job; the nightly {@link #rebuild()} picks them up.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsRollupService {
+
+    public enum Granularity {
+        MINUTE("minute", "1 minute", Duration.ofDays(1)),
+        FIFTEEN_MINUTES("minute", "15 minutes", Duration.ofDays(7)),
+        HOUR("hour", "1 hour", Duration.ofDays(366)),
+        DAY("day", "1 day", null);
+
+        // Stored rollup level the chart is read from, and the bucket width it is binned to
+        private final String source;
+        private final String interval;
+        // Widest from/to range a query may ask for, or null for no limit
+        private final Duration maxRange;
+
+        Granularity(String source, String interval, Duration maxRange) {
+            this.source = source;
+            this.interval = interval;
+            this.maxRange = maxRange;
+        }
+
+        public boolean allows(LocalDateTime from, LocalDateTime to) {
+            return !from.isAfter(to) && (maxRange == null || Duration.between(from, to).compareTo(maxRange) <= 0);
+        }
+    }
+
+    private static final String[] LEVELS = { "minute", "hour", "day" };
+
+    private static final String SEVERITY_BAND = "CASE WHEN severity_score >= 7 THEN 'high' " +
+            "WHEN severity_score >= 4 THEN 'medium' ELSE 'low' END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${hades.analytics.rollup-lag-seconds:60}")
+    private long lagSeconds;
+
+    @Scheduled(fixedDelayString = "${hades.analytics.rollup-interval-ms:30000}")
+    public void rollUp() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            rollUpReports();
+            rollUpImages();
+        });
+    }
+
+    private void rollUpReports() {
+        Timestamp from = lockWatermark("reports");
+        Timestamp to = Timestamp.valueOf(LocalDateTime.now().minusSeconds(lagSeconds));
+        if (!to.after(from)) {
+            return;
+        }
+        foldReports(from, to);
+        advanceWatermark("reports", to);
+    }
+
+    private void rollUpImages() {
+        Timestamp from = lockWatermark("drone_images");
+        Timestamp to = Timestamp.valueOf(LocalDateTime.now().minusSeconds(lagSeconds));
+        if (!to.after(from)) {
+            return;
+        }
+        foldImages(from, to);
+        advanceWatermark("drone_images", to);
+    }
+
+    private void foldReports(Timestamp from, Timestamp to) {
+        for (String level : LEVELS) {
+            jdbcTemplate.update("INSERT INTO report_rollups " +
+                    "(granularity, earthquake_id, bucket, severity_band, report_count) " +
+                    "SELECT ?, earthquake_id, date_trunc(?, created_at), " + SEVERITY_BAND + ", COUNT(*) " +
+                    "FROM reports WHERE created_at > ? AND created_at <= ? AND earthquake_id IS NOT NULL " +
+                    "GROUP BY 2, 3, 4 " +
+                    "ON CONFLICT (granularity, earthquake_id, bucket, severity_band) DO UPDATE SET " +
+                    "report_count = report_rollups.report_count + EXCLUDED.report_count",
+                    level, level, from, to);
+        }
+    }
+
+    private void foldImages(Timestamp from, Timestamp to) {
+        for (String level : LEVELS) {
+            jdbcTemplate.update("INSERT INTO image_rollups " +
+                    "(granularity, earthquake_id, bucket, drone_id, image_count) " +
+                    "SELECT ?, earthquake_id, date_trunc(?, uploaded_at), drone_id, COUNT(*) " +
+                    "FROM drone_images WHERE uploaded_at > ? AND uploaded_at <= ? " +
+                    "GROUP BY 2, 3, 4 " +
+                    "ON CONFLICT (granularity, earthquake_id, bucket, drone_id) DO UPDATE SET " +
+                    "image_count = image_rollups.image_count + EXCLUDED.image_count",
+                    level, level, from, to);
+        }
+    }
+
+    /**
+     * Subtracts a report that is about to be deleted, if the rollup job has
+     * already counted it. Runs in the deleting transaction; the shared lock on
+     * the watermark row orders it against a concurrent rollup pass.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reportRemoved(UUID reportId) {
+        shareWatermark("reports");
+        jdbcTemplate.update("UPDATE report_rollups r SET report_count = r.report_count - 1 " +
+                "FROM reports p, rollup_watermarks w " +
+                "WHERE p.id = ? AND w.name = 'reports' AND p.created_at <= w.processed_until " +
+                "AND r.earthquake_id = p.earthquake_id AND r.granularity IN ('minute', 'hour', 'day') " +
+                "AND r.bucket = date_trunc(r.granularity, p.created_at) AND r.severity_band = " + SEVERITY_BAND,
+                reportId);
+    }
+
+    /** Image counterpart of {@link #reportRemoved(UUID)}. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void imageRemoved(UUID imageId) {
+        shareWatermark("drone_images");
+        jdbcTemplate.update("UPDATE image_rollups r SET image_count = r.image_count - 1 " +
+                "FROM drone_images i, rollup_watermarks w " +
+                "WHERE i.id = ? AND w.name = 'drone_images' AND i.uploaded_at <= w.processed_until " +
+                "AND r.earthquake_id = i.earthquake_id AND r.drone_id = i.drone_id " +
+                "AND r.granularity IN ('minute', 'hour', 'day') " +
+                "AND r.bucket = date_trunc(r.granularity, i.uploaded_at)",
+                imageId);
+    }
+
+    /**
+     * Recompute both rollup tables up to their watermarks, picking up rows that
+     * committed too late for the incremental job. The watermark locks hold the
+     * incremental job and deletes off until the swap commits.
+     */
+    @Transactional
+    @Scheduled(cron = "${hades.analytics.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        Timestamp epoch = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+        Timestamp reportsUntil = lockWatermark("reports");
+        jdbcTemplate.update("DELETE FROM report_rollups");
+        foldReports(epoch, reportsUntil);
+
+        Timestamp imagesUntil = lockWatermark("drone_images");
+        jdbcTemplate.update("DELETE FROM image_rollups");
+        foldImages(epoch, imagesUntil);
+    }
+
+    // Row lock keeps two instances from folding the same window twice
+    private Timestamp lockWatermark(String name) {
+        return jdbcTemplate.queryForObject(
+                "SELECT processed_until FROM rollup_watermarks WHERE name = ? FOR UPDATE", Timestamp.class, name);
+    }
+
+    private void shareWatermark(String name) {
+        jdbcTemplate.queryForObject(
+                "SELECT processed_until FROM rollup_watermarks WHERE name = ? FOR SHARE", Timestamp.class, name);
+    }
+
+    private void advanceWatermark(String name, Timestamp processedUntil) {
+        jdbcTemplate.update("UPDATE rollup_watermarks SET processed_until = ? WHERE name = ?", processedUntil, name);
+    }
+
+    public List<ReportRollup> getReportRollups(UUID earthquakeId, Granularity granularity,
+            LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("SELECT date_bin(CAST(? AS interval), bucket, TIMESTAMP '2000-01-01') AS b, " +
+                "severity_band, SUM(report_count) FROM report_rollups " +
+                "WHERE granularity = ? AND earthquake_id = ? AND bucket >= ? AND bucket < ? " +
+                "GROUP BY b, severity_band ORDER BY b, severity_band",
+                (rs, rowNum) -> new ReportRollup(
+                        rs.getTimestamp(1).toLocalDateTime(), rs.getString(2), rs.getLong(3)),
+                granularity.interval, granularity.source, earthquakeId,
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public List<ImageRollup> getImageRollups(UUID earthquakeId, Granularity granularity,
+            LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("SELECT date_bin(CAST(? AS interval), bucket, TIMESTAMP '2000-01-01') AS b, " +
+                "drone_id, SUM(image_count) FROM image_rollups " +
+                "WHERE granularity = ? AND earthquake_id = ? AND bucket >= ? AND bucket < ? " +
+                "GROUP BY b, drone_id ORDER BY b, drone_id",
+                (rs, rowNum) -> new ImageRollup(
+                        rs.getTimestamp(1).toLocalDateTime(), rs.getObject(2, UUID.class), rs.getLong(3)),
+                granularity.interval, granularity.source, earthquakeId,
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+}
@@ -0,0 +1,238 @@
+package com.hades.services.service;
+
+import com.hades.services.model.ChatMessage;
+import com.hades.services.repository.ChatMessageRepository;
+import com.hades.services.repository.ChatSessionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind persistence for chat exchanges. Request threads enqueue onto
+ * a bounded lock-free queue and return; a single flusher thread writes
+ * batches when enough have piled up or the flush interval passes. One
+ * consumer draining in FIFO order keeps each session's messages in order.
+ * When the queue is full the caller drains it itself before writing its
+ * own exchange, so ordering still holds and memory stays bounded.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatMessageWriter {
+
+    /** One user/assistant pair plus the title to apply if the session is still empty. */
+    public record Exchange(UUID sessionId, ChatMessage question, ChatMessage answer, String title) {
+    }
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatSessionRepository chatSessionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${hades.chat.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hades.chat.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${hades.chat.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${hades.chat.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private final ConcurrentLinkedQueue<Exchange> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean running;
+    private Thread flusher;
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("hades.chat.write_behind.queued", size, AtomicInteger::get).register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = Thread.ofPlatform().name("chat-write-behind").start(this::flushLoop);
+    }
+
+    public void write(Exchange exchange) {
+        if (!enabled) {
+            persist(List.of(exchange));
+            return;
+        }
+        // Reserve a slot before publishing so the bound holds without locking
+        int reserved;
+        do {
+            reserved = size.get();
+            if (reserved >= capacity) {
+                writeThrough(exchange);
+                return;
+            }
+        } while (!size.compareAndSet(reserved, reserved + 1));
+
+        queue.offer(exchange);
+        if (reserved + 1 >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /** Writes everything queued so far before returning. */
+    public void flush() {
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeThrough(Exchange exchange) {
+        meterRegistry.counter("hades.chat.write_behind.sync_fallbacks").increment();
+        flushLock.lock();
+        try {
+            // Earlier exchanges go first so this session's order is preserved
+            drain();
+            persist(List.of(exchange));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running) {
+            if (size.get() < batchSize) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                System.err.println("Chat write-behind flush failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Caller holds flushLock
+    private void drain() {
+        List<Exchange> batch = new ArrayList<>(batchSize);
+        Exchange next;
+        while ((next = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(next);
+            if (batch.size() == batchSize) {
+                persistBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            persistBatch(batch);
+        }
+    }
+
+    private void persistBatch(List<Exchange> batch) {
+        try {
+            persist(batch);
+        } catch (RuntimeException e) {
+            // Isolate the bad exchange instead of dropping the whole batch. The failed saveAll
+            // already assigned ids, which would turn the retry into a merge of missing rows
+            System.err.println("Chat batch write failed, retrying individually: " + e.getMessage());
+            for (Exchange exchange : batch) {
+                try {
+                    persist(List.of(unsaved(exchange)));
+                } catch (RuntimeException single) {
+                    System.err.println("Dropping chat exchange for session " + exchange.sessionId()
+                            + ": " + single.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Exchange unsaved(Exchange exchange) {
+        return new Exchange(exchange.sessionId(), unsaved(exchange.question()), unsaved(exchange.answer()),
+                exchange.title());
+    }
+
+    private static ChatMessage unsaved(ChatMessage message) {
+        ChatMessage copy = new ChatMessage(message.getSessionId(), message.getUserId(), message.getRole(),
+                message.getContent(), message.getImageUrl());
+        copy.setTimestamp(message.getTimestamp());
+        return copy;
+    }
+
+    /**
+     * Writes in its own transaction so a caller's transaction never commits
+     * or rolls back other sessions' messages. The session counter UPDATE runs
+     * first and row-locks the session: if the session was deleted meanwhile it
+     * matches nothing and that session's messages are skipped, and a delete
+     * that starts afterwards waits for this commit and then removes them.
+     */
+    private void persist(List<Exchange> exchanges) {
+        Map<UUID, SessionDelta> deltas = new LinkedHashMap<>();
+        for (Exchange exchange : exchanges) {
+            deltas.computeIfAbsent(exchange.sessionId(), id -> new SessionDelta(exchange.title()))
+                    .add(exchange);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            List<ChatMessage> messages = new ArrayList<>(exchanges.size() * 2);
+            deltas.forEach((sessionId, delta) -> {
+                if (chatSessionRepository.recordMessages(sessionId, delta.messages.size(), delta.lastAt,
+                        delta.title) > 0) {
+                    messages.addAll(delta.messages);
+                }
+            });
+            chatMessageRepository.saveAll(messages);
+        });
+    }
+
+    private static final class SessionDelta {
+        private final String title;
+        private final List<ChatMessage> messages = new ArrayList<>();
+        private LocalDateTime lastAt;
+
+        SessionDelta(String title) {
+            this.title = title;
+        }
+
+        void add(Exchange exchange) {
+            messages.add(exchange.question());
+            messages.add(exchange.answer());
+            LocalDateTime at = exchange.answer().getTimestamp();
+            lastAt = lastAt == null || at.isAfter(lastAt) ? at : lastAt;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        // Anything enqueued after the flusher's last pass
+        flush();
+    }
+}
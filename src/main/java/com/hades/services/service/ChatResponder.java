@@ -0,0 +1,20 @@
+package com.hades.services.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Produces assistant replies for the chat endpoints. Implementations hand
+ * each token to the sink as soon as it is generated so callers can stream
+ * it to the client, and must stop early when the calling thread is
+ * interrupted (the client went away).
+ */
+public interface ChatResponder {
+
+    void respond(String message, String imageUrl, Consumer<String> onToken) throws InterruptedException;
+
+    default String respond(String message, String imageUrl) throws InterruptedException {
+        StringBuilder reply = new StringBuilder();
+        respond(message, imageUrl, reply::append);
+        return reply.toString();
+    }
+}
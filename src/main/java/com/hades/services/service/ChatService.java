@@ -1,13 +1,20 @@
 package com.hades.services.service;
 
+import com.hades.services.model.ChatCursor;
 import com.hades.services.model.ChatMessage;
+import com.hades.services.model.ChatMessagePage;
+import com.hades.services.model.ChatMessageResponse;
 import com.hades.services.model.ChatSession;
+import com.hades.services.model.ChatSessionPage;
+import com.hades.services.model.ChatSessionResponse;
 import com.hades.services.repository.ChatMessageRepository;
 import com.hades.services.repository.ChatSessionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,6 +25,8 @@ public class ChatService {
 
     private final ChatMessageRepository chatMessageRepository;
     private final ChatSessionRepository chatSessionRepository;
+    private final ChatResponder chatResponder;
+    private final ChatMessageWriter chatMessageWriter;
 
     // Session management
     public ChatSession createSession(UUID userId, String title) {
@@ -25,8 +34,17 @@ public class ChatService {
         return chatSessionRepository.save(session);
     }
 
-    public List<ChatSession> getSessions(UUID userId) {
-        return chatSessionRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    /** Newest sessions first; {@code before} continues from a previous page. */
+    @Transactional(readOnly = true)
+    public ChatSessionPage getSessions(UUID userId, ChatCursor before, int limit) {
+        List<ChatSession> rows = before == null
+                ? chatSessionRepository.findRecent(userId, limit + 1)
+                : chatSessionRepository.findBefore(userId, before.timestamp(), before.id(), limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        List<ChatSession> sessions = hasMore ? rows.subList(0, limit) : rows;
+        String next = sessions.isEmpty() ? null : ChatCursor.of(sessions.getLast()).encode();
+        return new ChatSessionPage(sessions.stream().map(ChatSessionResponse::from).toList(), next, hasMore);
     }
 
     public Optional<ChatSession> getSession(UUID sessionId) {
@@ -35,67 +53,72 @@ public class ChatService {
 
     @Transactional
     public void deleteSession(UUID sessionId) {
-        chatMessageRepository.deleteBySessionId(sessionId);
+        // Session row first: its lock orders this delete against ChatMessageWriter,
+        // which skips messages for sessions that no longer exist
         chatSessionRepository.deleteById(sessionId);
+        chatSessionRepository.flush();
+        chatMessageRepository.deleteBySessionId(sessionId);
     }
 
-    public void updateSessionTitle(UUID sessionId, String title) {
-        chatSessionRepository.findById(sessionId).ifPresent(session -> {
-            session.setTitle(title);
-            chatSessionRepository.save(session);
-        });
-    }
-
-    // Message management
-    public ChatMessage saveMessage(UUID sessionId, UUID userId, String role, String content, String imageUrl) {
-        ChatMessage message = new ChatMessage(sessionId, userId, role, content, imageUrl);
-        return chatMessageRepository.save(message);
-    }
+    /**
+     * A window of session history in ascending order. With {@code after} it
+     * returns the next newer messages (incremental sync); otherwise the
+     * newest messages, or those older than {@code before}.
+     */
+    @Transactional(readOnly = true)
+    public ChatMessagePage getSessionMessages(UUID sessionId, ChatCursor before, ChatCursor after, int limit) {
+        if (after != null) {
+            List<ChatMessage> rows = chatMessageRepository.findAfter(
+                    sessionId, after.timestamp(), after.id(), limit + 1);
+            boolean hasMore = rows.size() > limit;
+            List<ChatMessage> messages = hasMore ? rows.subList(0, limit) : rows;
+            return toPage(messages, after, hasMore);
+        }
 
-    public List<ChatMessage> getSessionMessages(UUID sessionId) {
-        return chatMessageRepository.findBySessionIdOrderByTimestampAsc(sessionId);
+        List<ChatMessage> rows = before == null
+                ? chatMessageRepository.findLatest(sessionId, limit + 1)
+                : chatMessageRepository.findBefore(sessionId, before.timestamp(), before.id(), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<ChatMessage> messages = new ArrayList<>(hasMore ? rows.subList(0, limit) : rows);
+        Collections.reverse(messages);
+        return toPage(messages, null, hasMore);
     }
 
-    // Response generation (mock)
-    public String generateResponse(String message, String imageUrl) {
-        if (imageUrl != null && !imageUrl.isEmpty()) {
-            return "Resimde 3 tane hasarli bina goruyorum.";
-        }
-        return generateResponse(message);
+    private ChatMessagePage toPage(List<ChatMessage> messages, ChatCursor after, boolean hasMore) {
+        // With nothing new, hand the caller's cursor back so polling can continue from it
+        String newest = messages.isEmpty()
+                ? (after == null ? null : after.encode())
+                : ChatCursor.of(messages.getLast()).encode();
+        String oldest = messages.isEmpty() ? null : ChatCursor.of(messages.getFirst()).encode();
+        return new ChatMessagePage(messages.stream().map(ChatMessageResponse::from).toList(), oldest, newest, hasMore);
     }
 
-    public String generateResponse(String message) {
-        if (message == null) {
-            return "Anlaşılmadı, lütfen tekrar edin.";
+    /**
+     * Saves a user/assistant pair. With write-behind enabled this only
+     * enqueues, so the messages may show up in history a moment later.
+     *
+     * @throws IllegalArgumentException if the message or reply is blank, since
+     *         a queued row that cannot be stored would only fail at flush time
+     */
+    public void recordExchange(UUID sessionId, UUID userId, String message, String imageUrl, String reply) {
+        if (message == null || message.isBlank() || reply == null || reply.isBlank()) {
+            throw new IllegalArgumentException("Chat message and reply must not be blank");
         }
+        ChatMessage question = new ChatMessage(sessionId, userId, "user", message, imageUrl);
+        ChatMessage answer = new ChatMessage(sessionId, userId, "assistant", reply, null);
 
-        String lowerMessage = message.toLowerCase();
+        // Title only takes effect on the session's first exchange
+        String title = message.length() <= 30 ? message : message.substring(0, 30) + "...";
+        chatMessageWriter.write(new ChatMessageWriter.Exchange(sessionId, question, answer, title));
+    }
 
-        if (lowerMessage.contains("merhaba") || lowerMessage.contains("selam")) {
-            return "Merhaba! Size nasıl yardımcı olabilirim? Deprem güvenliği, hasar tespiti veya acil durum prosedürleri hakkında sorularınızı yanıtlayabilirim.";
-        } else if (lowerMessage.contains("hasar") || lowerMessage.contains("çatlak")) {
-            return "Hasar tespiti yapmak için binanın hasarlı bölgesinin fotoğrafını yükleyebilir misiniz? Fotoğraf üzerinden ön değerlendirme yapabilirim.";
-        } else if (lowerMessage.contains("deprem") || lowerMessage.contains("sarsıntı")) {
-            return "Deprem anında 'Çök-Kapan-Tutun' pozisyonunu almalısınız. Sarsıntı geçtikten sonra binayı güvenli bir şekilde tahliye edin ve toplanma alanlarına gidin.";
-        } else if (lowerMessage.contains("drone") || lowerMessage.contains("görüntü")) {
-            return "Drone görüntülerini analiz ederek geniş alanlardaki hasarı haritalandırabilir ve ulaşılması zor bölgelerdeki yıkımı tespit edebilirim.";
-        } else if (lowerMessage.contains("acil") || lowerMessage.contains("112") || lowerMessage.contains("afad")
-                || lowerMessage.contains("telefon") || lowerMessage.contains("numara")) {
-            return "🚨 **Acil Durum Numaraları:**\n- **112**: Acil Çağrı Merkezi (Ambulans, Polis, İtfaiye)\n- **122**: AFAD\n- **177**: Orman Yangını İhbar\nLütfen hattı gereksiz meşgul etmeyiniz.";
-        } else if (lowerMessage.contains("toplanma") || lowerMessage.contains("alan")
-                || lowerMessage.contains("nerede") || lowerMessage.contains("konum")) {
-            return "📍 Size en yakın toplanma alanını e-Devlet üzerinden 'Afet ve Acil Durum Toplanma Alanı Sorgulama' hizmetini kullanarak öğrenebilirsiniz. Güvenliğiniz için lütfen hasarlı binalardan uzak durun.";
-        } else if (lowerMessage.contains("yardım") || lowerMessage.contains("ilk yardım")
-                || lowerMessage.contains("yaralı") || lowerMessage.contains("kanama")) {
-            if (lowerMessage.contains("ilk") || lowerMessage.contains("yaralı")) {
-                return "🩹 **Temel İlk Yardım:**\n1. Önce kendi güvenliğinizi sağlayın.\n2. Yaralını hareket ettirmeyin (hayati tehlike yoksa).\n3. Kanama varsa temiz bir bezle baskı uygulayın.\n4. Yaralıyı sıcak tutun ve hemen 112'yi arayın.";
-            } else {
-                return "ℹ️ **Size şu konularda yardımcı olabilirim:**\n- 'Hasar bildir' yazarak fotoğraf yükleyebilirsiniz.\n- 'Acil numaralar' yazarak iletişim listesini görebilirsiniz.\n- 'Deprem anında ne yapmalıyım?' diye sorabilirsiniz.\n- 'Toplanma alanı' hakkında bilgi alabilirsiniz.";
-            }
-        } else if (lowerMessage.contains("teşekkür") || lowerMessage.contains("sağol")) {
-            return "Rica ederim. Lütfen dikkatli olun ve güvende kalın. 🙏";
-        } else {
-            return "Bu konuda size şu an yardımcı olamıyorum. 'Yardım' yazarak neler yapabileceğimi görebilirsiniz.";
+    // Response generation
+    public String generateResponse(String message, String imageUrl) {
+        try {
+            return chatResponder.respond(message, imageUrl);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Response generation interrupted", e);
         }
     }
 }
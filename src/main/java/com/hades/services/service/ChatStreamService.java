@@ -0,0 +1,105 @@
+package com.hades.services.service;
+
+import com.hades.services.model.ChatReply;
+import com.hades.services.model.ChatToken;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams assistant replies over Server-Sent Events. Each token is pushed
+ * as a {@code token} event the moment the responder produces it, followed
+ * by one {@code done} event carrying the full reply.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatStreamService {
+
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+
+    private final ChatResponder chatResponder;
+    private final ChatService chatService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private enum Phase {
+        GENERATING, PERSISTING, CANCELLED
+    }
+
+    /**
+     * Starts generation on a background thread and returns immediately.
+     * The exchange is persisted once, after the last token, when
+     * {@code sessionId} is non-null. If the client disconnects while tokens
+     * are still being generated, generation is interrupted and nothing is
+     * saved; once saving has started it is left to finish, since an interrupt
+     * there would land in JDBC I/O.
+     */
+    public SseEmitter stream(UUID sessionId, UUID userId, String message, String imageUrl) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        AtomicReference<Phase> phase = new AtomicReference<>(Phase.GENERATING);
+        Future<?> generation = executor.submit(() -> generate(emitter, phase, sessionId, userId, message, imageUrl));
+
+        Runnable cancel = () -> {
+            if (phase.compareAndSet(Phase.GENERATING, Phase.CANCELLED)) {
+                generation.cancel(true);
+            }
+        };
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(e -> cancel.run());
+        return emitter;
+    }
+
+    private void generate(SseEmitter emitter, AtomicReference<Phase> phase, UUID sessionId, UUID userId,
+            String message, String imageUrl) {
+        StringBuilder reply = new StringBuilder();
+        try {
+            chatResponder.respond(message, imageUrl, token -> {
+                reply.append(token);
+                send(emitter, SseEmitter.event().name("token").data(new ChatToken(token), MediaType.APPLICATION_JSON));
+            });
+
+            if (!phase.compareAndSet(Phase.GENERATING, Phase.PERSISTING)) {
+                // Client went away after the last token; drop the reply like any other cancel
+                return;
+            }
+            if (sessionId != null) {
+                chatService.recordExchange(sessionId, userId, message, imageUrl, reply.toString());
+            }
+            send(emitter, SseEmitter.event().name("done").data(new ChatReply(reply.toString()), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (InterruptedException | UncheckedIOException e) {
+            // Client went away; drop the partial reply
+        } catch (Exception e) {
+            System.err.println("Chat stream error: " + e.getMessage());
+            try {
+                emitter.send(SseEmitter.event().name("error").data("Yanıt oluşturulamadı."));
+            } catch (IOException ignored) {
+                // Client already gone
+            }
+            emitter.complete();
+        }
+    }
+
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
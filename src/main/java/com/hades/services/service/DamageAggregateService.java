@@ -0,0 +1,101 @@
+package com.hades.services.service;
+
+import com.hades.services.cache.DataVersions;
+import com.hades.services.model.DamageSummary;
+import com.hades.services.model.Earthquake;
+import com.hades.services.model.Report;
+import com.hades.services.repository.EarthquakeRepository;
+import com.hades.services.repository.NeighborhoodDamageRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps Earthquake.collapsed/damaged/blocked and the neighborhood_damage table in
+ * step with reports. Deltas are applied in the caller's transaction, so totals can
+ * never disagree with the committed reports.
+ */
+@Service
+@RequiredArgsConstructor
+public class DamageAggregateService {
+
+    private final EarthquakeRepository earthquakeRepository;
+    private final NeighborhoodDamageRepository neighborhoodDamageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataVersions dataVersions;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reportAdded(Report report) {
+        applyDelta(report, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reportRemoved(Report report) {
+        applyDelta(report, -1);
+    }
+
+    private void applyDelta(Report report, int sign) {
+        if (report.getEarthquakeId() == null) {
+            return;
+        }
+        int collapsed = sign * valueOf(report.getCollapsedBuildings());
+        int damaged = sign * valueOf(report.getDamagedStructures());
+        int blocked = sign * valueOf(report.getBlockedRoads());
+
+        earthquakeRepository.addDamageDelta(report.getEarthquakeId(), collapsed, damaged, blocked);
+        neighborhoodDamageRepository.addDelta(report.getEarthquakeId(), neighborhoodOf(report),
+                sign, collapsed, damaged, blocked);
+        dataVersions.bumpAfterCommit(DataVersions.Table.EARTHQUAKES);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DamageSummary> getSummary(UUID earthquakeId) {
+        return earthquakeRepository.findById(earthquakeId).map(earthquake -> new DamageSummary(
+                earthquake.getId(),
+                earthquake.getCollapsed(),
+                earthquake.getDamaged(),
+                earthquake.getBlocked(),
+                neighborhoodDamageRepository.findByEarthquakeIdOrderByCollapsedDescDamagedDesc(earthquakeId)));
+    }
+
+    /**
+     * Recompute every aggregate from the reports table. Report writes are blocked
+     * for the duration so no delta is lost between the scan and the swap.
+     */
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.execute("LOCK TABLE reports IN SHARE MODE");
+        jdbcTemplate.update("DELETE FROM neighborhood_damage");
+        jdbcTemplate.update("INSERT INTO neighborhood_damage " +
+                "(earthquake_id, neighborhood, report_count, collapsed, damaged, blocked) " +
+                "SELECT earthquake_id, COALESCE(location, ''), COUNT(*), " +
+                "COALESCE(SUM(collapsed_buildings), 0), COALESCE(SUM(damaged_structures), 0), " +
+                "COALESCE(SUM(blocked_roads), 0) " +
+                "FROM reports WHERE earthquake_id IS NOT NULL " +
+                "GROUP BY earthquake_id, COALESCE(location, '')");
+        jdbcTemplate.update("UPDATE earthquakes e SET " +
+                "collapsed = t.collapsed, damaged = t.damaged, blocked = t.blocked " +
+                "FROM (SELECT q.id, COALESCE(SUM(n.collapsed), 0) AS collapsed, " +
+                "COALESCE(SUM(n.damaged), 0) AS damaged, COALESCE(SUM(n.blocked), 0) AS blocked " +
+                "FROM earthquakes q LEFT JOIN neighborhood_damage n ON n.earthquake_id = q.id " +
+                "GROUP BY q.id) t WHERE e.id = t.id");
+
+        entityManagerFactory.getCache().evict(Earthquake.class);
+        dataVersions.bumpAfterCommit(DataVersions.Table.EARTHQUAKES);
+    }
+
+    private static String neighborhoodOf(Report report) {
+        return report.getLocation() != null ? report.getLocation() : "";
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+}
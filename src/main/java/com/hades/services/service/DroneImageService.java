@@ -1,12 +1,17 @@
 package com.hades.services.service;
 
+import com.hades.services.model.BoundingBox;
 import com.hades.services.model.DroneImage;
 import com.hades.services.repository.DroneImageRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,11 +22,13 @@ public class DroneImageService {
 
     private final DroneImageRepository droneImageRepository;
     private final AwsFileService awsFileService;
+    private final DroneStatusHub droneStatusHub;
+    private final AnalyticsRollupService analyticsRollupService;
 
     private static final String S3_PREFIX = "drone-images/";
 
-    public DroneImage uploadImage(MultipartFile file, UUID earthquakeId, UUID droneId, String neighborhood, UUID userId)
-            throws IOException {
+    public DroneImage uploadImage(MultipartFile file, UUID earthquakeId, UUID droneId, String neighborhood, UUID userId,
+            Double latitude, Double longitude) throws IOException {
         // Generate unique filename
         String originalFileName = file.getOriginalFilename();
         String extension = originalFileName != null && originalFileName.contains(".")
@@ -43,8 +50,12 @@ public class DroneImageService {
                 file.getSize(),
                 file.getContentType(),
                 userId);
+        image.setLatitude(latitude);
+        image.setLongitude(longitude);
 
-        return droneImageRepository.save(image);
+        DroneImage saved = droneImageRepository.save(image);
+        droneStatusHub.imageUploaded(saved);
+        return saved;
     }
 
     public List<DroneImage> getAll() {
@@ -59,10 +70,34 @@ public class DroneImageService {
         return droneImageRepository.findByDroneIdOrderByUploadedAtDesc(droneId);
     }
 
+    @Transactional(readOnly = true)
+    public Page<DroneImage> getPage(UUID earthquakeId, UUID droneId, Pageable pageable) {
+        if (earthquakeId != null) {
+            return droneImageRepository.findByEarthquakeIdOrderByUploadedAtDesc(earthquakeId, pageable);
+        } else if (droneId != null) {
+            return droneImageRepository.findByDroneIdOrderByUploadedAtDesc(droneId, pageable);
+        }
+        return droneImageRepository.findAllByOrderByUploadedAtDesc(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DroneImage> getInBox(BoundingBox box, UUID earthquakeId, UUID droneId, int limit) {
+        return droneImageRepository.findInBox(box.minLon(), box.minLat(), box.maxLon(), box.maxLat(),
+                earthquakeId, droneId, limit);
+    }
+
     public Optional<DroneImage> getById(UUID id) {
         return droneImageRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public List<DroneImage> getByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return droneImageRepository.findAllById(ids);
+    }
+
     public void updateStatus(UUID id, DroneImage.ImageStatus status) {
         droneImageRepository.findById(id).ifPresent(image -> {
             image.setStatus(status);
@@ -70,6 +105,7 @@ public class DroneImageService {
         });
     }
 
+    @Transactional
     public void delete(UUID id) {
         droneImageRepository.findById(id).ifPresent(image -> {
             // Delete file from S3
@@ -79,6 +115,7 @@ public class DroneImageService {
                 // Log error but continue with database deletion
                 System.err.println("Failed to delete file from S3: " + e.getMessage());
             }
+            analyticsRollupService.imageRemoved(id);
             droneImageRepository.deleteById(id);
         });
     }
@@ -1,7 +1,10 @@
 package com.hades.services.service;
 
+import com.hades.services.model.ActiveDrone;
 import com.hades.services.model.Drone;
+import com.hades.services.model.DroneSummary;
 import com.hades.services.repository.DroneRepository;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -15,23 +18,35 @@ import java.util.UUID;
 public class DroneService {
 
     private final DroneRepository droneRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DroneStatusHub droneStatusHub;
 
     public Drone create(Drone drone) {
-        return droneRepository.save(drone);
+        Drone saved = droneRepository.save(drone);
+        droneStatusHub.droneSaved(saved);
+        return saved;
     }
 
     public List<Drone> getAll() {
         return droneRepository.findAllByOrderByCreatedAtDesc();
     }
 
-    public List<Drone> getActiveDrones() {
-        return droneRepository.findByStatus(Drone.DroneStatus.ACTIVE);
+    public List<ActiveDrone> getActiveDrones() {
+        return droneRepository.findSummariesByStatus(Drone.DroneStatus.ACTIVE);
     }
 
     public List<Drone> search(String query) {
         return droneRepository.findByNameContainingIgnoreCaseOrModelContainingIgnoreCase(query, query);
     }
 
+    public List<DroneSummary> getAllSummaries() {
+        return droneRepository.findAllSummaries();
+    }
+
+    public List<DroneSummary> searchSummaries(String query) {
+        return droneRepository.searchSummaries(LikePatterns.contains(query));
+    }
+
     public Optional<Drone> getById(UUID id) {
         return droneRepository.findById(id);
     }
@@ -45,11 +60,20 @@ public class DroneService {
             drone.setAltitude(updated.getAltitude());
             drone.setImageCount(updated.getImageCount());
             drone.setLastUsed(LocalDateTime.now());
-            return droneRepository.save(drone);
+            Drone saved = droneRepository.save(drone);
+            evict(id);
+            droneStatusHub.droneSaved(saved);
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Drone not found"));
     }
 
     public void delete(UUID id) {
         droneRepository.deleteById(id);
+        evict(id);
+        droneStatusHub.droneRemoved(id);
+    }
+
+    private void evict(UUID id) {
+        entityManagerFactory.getCache().evict(Drone.class, id);
     }
 }
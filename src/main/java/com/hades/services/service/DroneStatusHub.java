@@ -0,0 +1,201 @@
+package com.hades.services.service;
+
+import com.hades.services.model.Drone;
+import com.hades.services.model.DroneImage;
+import com.hades.services.model.DroneLiveState;
+import com.hades.services.model.DroneStatusEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Fans drone status changes out to dashboards over SSE. Current state is
+ * loaded once at startup and then kept up to date by the services that
+ * change drones, so subscribers never cause database reads.
+ *
+ * <p>A subscriber gets a {@code snapshot} event on connect, then a
+ * {@code drone} event per change and {@code removed} when a drone leaves its
+ * view. Each subscriber has a bounded queue drained by its own virtual
+ * thread; when a slow client falls behind the oldest events are dropped,
+ * so publishers never block.
+ */
+@Service
+public class DroneStatusHub {
+
+    private static final int QUEUE_CAPACITY = 256;
+    private static final Object HEARTBEAT = new Object();
+    private static final long HEARTBEAT_SECONDS = 20;
+
+    private static final String SEED_SQL = """
+            SELECT d.id, d.name, d.status, d.battery, d.altitude, i.id AS image_id, i.earthquake_id, i.uploaded_at
+            FROM drones d
+            LEFT JOIN LATERAL (
+                SELECT id, earthquake_id, uploaded_at FROM drone_images
+                WHERE drone_id = d.id ORDER BY uploaded_at DESC LIMIT 1
+            ) i ON true
+            """;
+
+    private record Removed(UUID droneId) {
+    }
+
+    private record Subscriber(SseEmitter emitter, UUID earthquakeId, ArrayBlockingQueue<Object> queue) {
+
+        boolean sees(DroneStatusEvent state) {
+            return state != null && (earthquakeId == null || earthquakeId.equals(state.earthquakeId()));
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter dropped;
+    private final Map<UUID, DroneStatusEvent> states = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DroneStatusHub(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dropped = meterRegistry.counter("hades.drone_stream.dropped");
+        Gauge.builder("hades.drone_stream.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void seed() {
+        jdbcTemplate.query(SEED_SQL, rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            Timestamp uploadedAt = rs.getTimestamp("uploaded_at");
+            // Changes published while seeding are newer than this row
+            states.putIfAbsent(id, new DroneStatusEvent(
+                    id,
+                    rs.getString("name"),
+                    Drone.DroneStatus.valueOf(rs.getString("status")),
+                    rs.getObject("battery", Integer.class),
+                    rs.getObject("altitude", Integer.class),
+                    null, null, null,
+                    rs.getObject("image_id", UUID.class),
+                    rs.getObject("earthquake_id", UUID.class),
+                    uploadedAt == null ? null : uploadedAt.toLocalDateTime()));
+        });
+    }
+
+    public SseEmitter subscribe(UUID earthquakeId) {
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber = new Subscriber(emitter, earthquakeId, new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+
+        Runnable unsubscribe = () -> subscribers.remove(subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        // Register before taking the snapshot so no change falls in between
+        subscribers.add(subscriber);
+        List<DroneStatusEvent> snapshot = states.values().stream().filter(subscriber::sees).toList();
+        executor.submit(() -> pump(subscriber, snapshot));
+        return emitter;
+    }
+
+    public void droneSaved(Drone drone) {
+        update(drone.getId(), current -> current == null ? DroneStatusEvent.of(drone) : current.withDrone(drone));
+    }
+
+    public void droneRemoved(UUID droneId) {
+        update(droneId, current -> null);
+    }
+
+    public void telemetry(DroneLiveState live) {
+        update(live.droneId(), current -> current == null ? null : current.withTelemetry(live));
+    }
+
+    public void imageUploaded(DroneImage image) {
+        if (image.getDroneId() != null) {
+            update(image.getDroneId(), current -> current == null ? null : current.withImage(image));
+        }
+    }
+
+    private void update(UUID droneId, UnaryOperator<DroneStatusEvent> change) {
+        // Events carry the full state, so they are queued inside compute: updates to one drone are
+        // serialized there, and subscribers see them in the order they were applied
+        states.compute(droneId, (id, current) -> {
+            DroneStatusEvent next = change.apply(current);
+            if (!Objects.equals(current, next)) {
+                publish(id, current, next);
+            }
+            return next;
+        });
+    }
+
+    private void publish(UUID droneId, DroneStatusEvent previous, DroneStatusEvent next) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sees(next)) {
+                offer(subscriber, next);
+            } else if (subscriber.sees(previous)) {
+                offer(subscriber, new Removed(droneId));
+            }
+        }
+    }
+
+    private void offer(Subscriber subscriber, Object event) {
+        while (!subscriber.queue().offer(event)) {
+            if (subscriber.queue().poll() != null) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private void pump(Subscriber subscriber, List<DroneStatusEvent> snapshot) {
+        SseEmitter emitter = subscriber.emitter();
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+            while (subscribers.contains(subscriber)) {
+                // Bounded wait so the thread notices an unsubscribe even with no traffic
+                Object event = subscriber.queue().poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                if (event == null) {
+                    continue;
+                }
+                if (event == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (event instanceof Removed removed) {
+                    emitter.send(SseEmitter.event().name("removed").data(removed, MediaType.APPLICATION_JSON));
+                } else {
+                    emitter.send(SseEmitter.event().name("drone").data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            subscribers.remove(subscriber);
+        } catch (InterruptedException e) {
+            emitter.complete();
+        }
+    }
+
+    // Keeps idle connections open through proxies and surfaces dead clients
+    @Scheduled(fixedDelay = HEARTBEAT_SECONDS * 1000)
+    void heartbeat() {
+        subscribers.forEach(subscriber -> offer(subscriber, HEARTBEAT));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
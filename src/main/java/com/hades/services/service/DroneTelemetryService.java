@@ -0,0 +1,199 @@
+package com.hades.services.service;
+
+import com.hades.services.cache.DataVersions;
+import com.hades.services.model.Drone;
+import com.hades.services.model.DroneLiveState;
+import com.hades.services.model.TelemetryPoint;
+import com.hades.services.model.TelemetrySample;
+import com.hades.services.telemetry.TelemetryStore;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latest drone telemetry, held in memory. Samples only touch the map; drones
+ * that changed are written to the drones table together on a timer, so
+ * ingest cost does not depend on the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class DroneTelemetryService {
+
+    private static final String FLUSH_SQL =
+            "UPDATE drones SET battery = COALESCE(?, battery), altitude = COALESCE(?, altitude), last_used = ?"
+                    + " WHERE id = ?";
+    private static final long UNKNOWN_TTL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_UNKNOWN = 10_000;
+
+    private final DroneService droneService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataVersions dataVersions;
+    private final DroneStatusHub droneStatusHub;
+    private final TelemetryStore telemetryStore;
+
+    private final Map<UUID, DroneLiveState> latest = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // Unknown drone ids -> nanoTime until which the miss is trusted; ids are server-generated,
+    // so a drone created later cannot already be in here
+    private final Map<UUID, Long> unknown = new ConcurrentHashMap<>();
+
+    /**
+     * Folds a batch of samples into the drone's live state. Returns false for
+     * an unknown drone; the lookup only runs the first time a drone reports
+     * and is served from the second-level cache, and misses are remembered
+     * for a minute. The first state starts from the stored battery and
+     * altitude, so a sample carrying only some fields does not blank the rest.
+     */
+    public boolean ingest(UUID droneId, List<TelemetrySample> samples) {
+        DroneLiveState initial;
+        if (latest.containsKey(droneId)) {
+            // Only used if the drone is forgotten mid-batch; the flush keeps stored values for null fields
+            initial = new DroneLiveState(droneId, null, null, null, null, Instant.EPOCH);
+        } else {
+            Optional<Drone> drone = find(droneId);
+            if (drone.isEmpty()) {
+                return false;
+            }
+            initial = new DroneLiveState(droneId, drone.get().getBattery(), drone.get().getAltitude(), null, null,
+                    Instant.EPOCH);
+        }
+
+        Instant now = Instant.now();
+        DroneLiveState state = null;
+        for (TelemetrySample sample : samples) {
+            // Clock-skewed drones must not pin a future timestamp
+            Instant at = sample.timestamp() == null || sample.timestamp().isAfter(now) ? now : sample.timestamp();
+            state = latest.compute(droneId, (id, current) -> {
+                if (current == null) {
+                    return initial.merge(sample, at);
+                }
+                return at.isBefore(current.reportedAt()) ? current : current.merge(sample, at);
+            });
+            // The store ignores anything not newer than its last sample, including stale ones kept above
+            telemetryStore.append(droneId, state.reportedAt().toEpochMilli(), valueOf(state.battery()),
+                    valueOf(state.altitude()));
+        }
+        dirty.add(droneId);
+        droneStatusHub.telemetry(state);
+        return true;
+    }
+
+    /**
+     * Battery and altitude history in {@code [from, to]}. Buckets are widened
+     * so at most {@code maxPoints} come back; a zero step with a narrow
+     * enough range returns raw samples.
+     */
+    public List<TelemetryPoint> getHistory(UUID droneId, Instant from, Instant to, Duration step, int maxPoints) {
+        long range = Math.max(0, to.toEpochMilli() - from.toEpochMilli());
+        // Both ends are inclusive, so the range spans range + 1 milliseconds
+        long stepMs = Math.max(step.toMillis(), Math.ceilDiv(range + 1, maxPoints));
+        // Raw samples are at most one per millisecond, so a one-millisecond step is the same as none
+        return telemetryStore.query(droneId, from.toEpochMilli(), to.toEpochMilli(), stepMs <= 1 ? 0 : stepMs);
+    }
+
+    private static double valueOf(Integer value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    public Optional<DroneLiveState> getLive(UUID droneId) {
+        return Optional.ofNullable(latest.get(droneId));
+    }
+
+    public Collection<DroneLiveState> getAllLive() {
+        return latest.values();
+    }
+
+    private Optional<Drone> find(UUID droneId) {
+        long now = System.nanoTime();
+        Long until = unknown.get(droneId);
+        if (until != null && until - now > 0) {
+            return Optional.empty();
+        }
+        Optional<Drone> drone = droneService.getById(droneId);
+        if (drone.isPresent()) {
+            unknown.remove(droneId);
+            return drone;
+        }
+        if (unknown.size() >= MAX_UNKNOWN) {
+            unknown.clear();
+        }
+        unknown.put(droneId, now + UNKNOWN_TTL_NANOS);
+        return Optional.empty();
+    }
+
+    /** Called when a drone is deleted so its state is neither served nor flushed again, and its history goes. */
+    public void forget(UUID droneId) {
+        latest.remove(droneId);
+        dirty.remove(droneId);
+        telemetryStore.delete(droneId);
+    }
+
+    @Scheduled(fixedDelayString = "${hades.telemetry.flush-interval-ms:5000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<UUID> ids = new ArrayList<>(dirty.size());
+        List<Object[]> rows = new ArrayList<>(dirty.size());
+        for (UUID id : dirty) {
+            // Remove before reading: a sample landing in between re-marks the drone for the next pass
+            dirty.remove(id);
+            DroneLiveState state = latest.get(id);
+            if (state == null) {
+                continue;
+            }
+            ids.add(id);
+            rows.add(new Object[] { state.battery(), state.altitude(),
+                    Timestamp.from(state.reportedAt()), id });
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            int[][] counts = jdbcTemplate.batchUpdate(FLUSH_SQL, rows, rows.size(),
+                    (ps, row) -> {
+                        ps.setObject(1, row[0]);
+                        ps.setObject(2, row[1]);
+                        ps.setTimestamp(3, (Timestamp) row[2]);
+                        ps.setObject(4, row[3]);
+                    });
+            for (int i = 0; i < ids.size(); i++) {
+                if (counts[0][i] == 0) {
+                    // Drone was deleted meanwhile
+                    latest.remove(ids.get(i));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Telemetry flush failed, will retry: " + e.getMessage());
+            dirty.addAll(ids);
+            return;
+        }
+
+        ids.forEach(id -> entityManagerFactory.getCache().evict(Drone.class, id));
+        dataVersions.bump(DataVersions.Table.DRONES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
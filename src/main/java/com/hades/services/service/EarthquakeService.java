@@ -1,7 +1,9 @@
 package com.hades.services.service;
 
 import com.hades.services.model.Earthquake;
+import com.hades.services.model.EarthquakeSummary;
 import com.hades.services.repository.EarthquakeRepository;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,8 +16,13 @@ import java.util.UUID;
 public class EarthquakeService {
 
     private final EarthquakeRepository earthquakeRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
     public Earthquake create(Earthquake earthquake) {
+        // A new earthquake has no reports yet; totals are never taken from the client
+        earthquake.setCollapsed(0);
+        earthquake.setDamaged(0);
+        earthquake.setBlocked(0);
         return earthquakeRepository.save(earthquake);
     }
 
@@ -27,6 +34,14 @@ public class EarthquakeService {
         return earthquakeRepository.findByNameContainingIgnoreCaseOrLocationContainingIgnoreCase(query, query);
     }
 
+    public List<EarthquakeSummary> getAllSummaries() {
+        return earthquakeRepository.findAllSummaries();
+    }
+
+    public List<EarthquakeSummary> searchSummaries(String query) {
+        return earthquakeRepository.searchSummaries(LikePatterns.contains(query));
+    }
+
     public Optional<Earthquake> getById(UUID id) {
         return earthquakeRepository.findById(id);
     }
@@ -38,15 +53,20 @@ public class EarthquakeService {
             eq.setLocation(updated.getLocation());
             eq.setDate(updated.getDate());
             eq.setStatus(updated.getStatus());
-            eq.setCollapsed(updated.getCollapsed());
-            eq.setDamaged(updated.getDamaged());
-            eq.setBlocked(updated.getBlocked());
+            // collapsed/damaged/blocked are derived from reports and not updatable through the entity
             eq.setImages(updated.getImages());
-            return earthquakeRepository.save(eq);
+            Earthquake saved = earthquakeRepository.save(eq);
+            evict(id);
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Earthquake not found"));
     }
 
     public void delete(UUID id) {
         earthquakeRepository.deleteById(id);
+        evict(id);
+    }
+
+    private void evict(UUID id) {
+        entityManagerFactory.getCache().evict(Earthquake.class, id);
     }
 }
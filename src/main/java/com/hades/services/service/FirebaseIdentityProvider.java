@@ -0,0 +1,62 @@
+package com.hades.services.service;
+
+import com.google.firebase.ErrorCode;
+import com.google.firebase.auth.AuthErrorCode;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.UserRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Component
+@ConditionalOnProperty(name = "hades.identity.provider", havingValue = "firebase", matchIfMissing = true)
+@RequiredArgsConstructor
+public class FirebaseIdentityProvider implements IdentityProvider {
+
+    private static final Set<ErrorCode> TRANSIENT_ERRORS = EnumSet.of(
+            ErrorCode.UNAVAILABLE, ErrorCode.RESOURCE_EXHAUSTED, ErrorCode.DEADLINE_EXCEEDED,
+            ErrorCode.INTERNAL, ErrorCode.UNKNOWN);
+
+    private final FirebaseAuth firebaseAuth;
+
+    @Override
+    public String createUser(String email, String password, String displayName) throws IdentityProviderException {
+        UserRecord.CreateRequest request = new UserRecord.CreateRequest()
+                .setEmail(email)
+                .setPassword(password)
+                .setDisplayName(displayName)
+                .setEmailVerified(true);
+        try {
+            return firebaseAuth.createUser(request).getUid();
+        } catch (FirebaseAuthException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public void deleteUser(String uid) throws IdentityProviderException {
+        try {
+            firebaseAuth.deleteUser(uid);
+        } catch (FirebaseAuthException e) {
+            if (e.getAuthErrorCode() != AuthErrorCode.USER_NOT_FOUND) {
+                throw translate(e);
+            }
+        }
+    }
+
+    private static IdentityProviderException translate(FirebaseAuthException e) {
+        IdentityProviderException.Reason reason;
+        if (e.getAuthErrorCode() == AuthErrorCode.EMAIL_ALREADY_EXISTS) {
+            reason = IdentityProviderException.Reason.ALREADY_EXISTS;
+        } else if (TRANSIENT_ERRORS.contains(e.getErrorCode())) {
+            reason = IdentityProviderException.Reason.TRANSIENT;
+        } else {
+            reason = IdentityProviderException.Reason.REJECTED;
+        }
+        return new IdentityProviderException(reason, e.getMessage(), e);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hades.services.service;
+
+/**
+ * Creates and removes sign-in accounts. Firebase in production; an
+ * in-memory fake when {@code hades.identity.provider=local}.
+ * Implementations must be safe to call from many threads at once.
+ */
+public interface IdentityProvider {
+
+    /** Creates an account and returns its uid. */
+    String createUser(String email, String password, String displayName) throws IdentityProviderException;
+
+    /** Removes an account; a missing account is not an error. */
+    void deleteUser(String uid) throws IdentityProviderException;
+}
@@ -0,0 +1,30 @@
+package com.hades.services.service;
+
+import lombok.Getter;
+
+/**
+ * Identity provider failure, classified so callers know whether a retry can help.
+ */
+@Getter
+public class IdentityProviderException extends Exception {
+
+    public enum Reason {
+        /** The email already has an account. */
+        ALREADY_EXISTS,
+        /** Quota, timeout or outage; worth retrying after a pause. */
+        TRANSIENT,
+        /** Anything else (bad email, weak password, ...). */
+        REJECTED
+    }
+
+    private final Reason reason;
+
+    public IdentityProviderException(Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+
+    public IdentityProviderException(Reason reason, String message) {
+        this(reason, message, null);
+    }
+}
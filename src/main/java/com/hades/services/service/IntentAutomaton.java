@@ -0,0 +1,201 @@
+package com.hades.services.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho–Corasick automaton over Turkish-folded keywords. Each keyword maps to
+ * an intent index, and {@link #match} returns the highest-priority intent
+ * whose keyword occurs anywhere in the text, in one pass and without
+ * allocating. An intent can also require all of several keyword groups, each
+ * satisfied by any one of its keywords; groups are tracked as bits of one
+ * {@code long}, so at most 64 exist across all intents. Instances are
+ * immutable and safe to share between threads.
+ */
+public final class IntentAutomaton {
+
+    public static final int NO_MATCH = -1;
+
+    // Goto edges in compressed rows: node n owns edgeChars/edgeTargets[rowStart[n] .. rowStart[n + 1])
+    private final int[] rowStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    // Best intent among this node's keywords and those of its suffix (failure) chain
+    private final int[] best;
+    private final int[] priorities;
+    // Group bits set by this node's keywords and those of its suffix chain
+    private final long[] groupBits;
+    // One entry per all-of rule: the group bits it needs and the intent it yields
+    private final long[] ruleMasks;
+    private final int[] ruleIntents;
+
+    /**
+     * @param keywords   keyword lists, indexed by intent; any one of them matches the intent
+     * @param allOf      keyword groups, indexed by intent; the intent also matches when every
+     *                   group has a keyword in the text. Null or empty entries add no rule
+     * @param priorities priority per intent; higher wins when several intents match
+     */
+    public IntentAutomaton(List<List<String>> keywords, List<List<List<String>>> allOf, int[] priorities) {
+        this.priorities = priorities.clone();
+
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        List<Long> terminalBits = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        terminal.add(NO_MATCH);
+        terminalBits.add(0L);
+
+        for (int intent = 0; intent < keywords.size(); intent++) {
+            for (String keyword : keywords.get(intent)) {
+                int node = insert(trie, terminal, terminalBits, keyword);
+                if (node != 0) {
+                    terminal.set(node, better(terminal.get(node), intent));
+                }
+            }
+        }
+
+        List<Long> masks = new ArrayList<>();
+        List<Integer> intents = new ArrayList<>();
+        int bit = 0;
+        for (int intent = 0; intent < allOf.size(); intent++) {
+            List<List<String>> groups = allOf.get(intent);
+            if (groups == null || groups.isEmpty()) {
+                continue;
+            }
+            long mask = 0;
+            for (List<String> group : groups) {
+                if (bit == Long.SIZE) {
+                    throw new IllegalArgumentException("At most " + Long.SIZE + " keyword groups are supported");
+                }
+                if (group.isEmpty()) {
+                    throw new IllegalArgumentException("Keyword group of intent " + intent + " is empty");
+                }
+                for (String keyword : group) {
+                    int node = insert(trie, terminal, terminalBits, keyword);
+                    terminalBits.set(node, terminalBits.get(node) | 1L << bit);
+                }
+                mask |= 1L << bit++;
+            }
+            masks.add(mask);
+            intents.add(intent);
+        }
+        ruleMasks = masks.stream().mapToLong(Long::longValue).toArray();
+        ruleIntents = intents.stream().mapToInt(Integer::intValue).toArray();
+        // The root only carries bits of empty keywords, which would match every text
+        terminalBits.set(0, 0L);
+
+        int nodes = trie.size();
+        rowStart = new int[nodes + 1];
+        for (int n = 0; n < nodes; n++) {
+            rowStart[n + 1] = rowStart[n] + trie.get(n).size();
+        }
+        edgeChars = new char[rowStart[nodes]];
+        edgeTargets = new int[rowStart[nodes]];
+        for (int n = 0; n < nodes; n++) {
+            int e = rowStart[n];
+            for (Map.Entry<Character, Integer> edge : trie.get(n).entrySet()) {
+                edgeChars[e] = edge.getKey();
+                edgeTargets[e++] = edge.getValue();
+            }
+        }
+
+        // Breadth-first so every failure target is final before its dependents
+        fail = new int[nodes];
+        best = new int[nodes];
+        groupBits = new long[nodes];
+        best[0] = NO_MATCH;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int e = rowStart[0]; e < rowStart[1]; e++) {
+            int child = edgeTargets[e];
+            best[child] = terminal.get(child);
+            groupBits[child] = terminalBits.get(child);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int e = rowStart[node]; e < rowStart[node + 1]; e++) {
+                int child = edgeTargets[e];
+                int f = fail[node];
+                int target;
+                while ((target = step(f, edgeChars[e])) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = Math.max(target, 0);
+                best[child] = better(terminal.get(child), best[fail[child]]);
+                groupBits[child] = terminalBits.get(child) | groupBits[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /** Returns the index of the best matching intent, or {@link #NO_MATCH}. */
+    public int match(CharSequence text) {
+        int node = 0;
+        int result = NO_MATCH;
+        long seen = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            int next;
+            while ((next = step(node, c)) < 0 && node != 0) {
+                node = fail[node];
+            }
+            node = Math.max(next, 0);
+            result = better(result, best[node]);
+            seen |= groupBits[node];
+        }
+        for (int r = 0; r < ruleMasks.length; r++) {
+            if ((seen & ruleMasks[r]) == ruleMasks[r]) {
+                result = better(result, ruleIntents[r]);
+            }
+        }
+        return result;
+    }
+
+    private static int insert(List<TreeMap<Character, Integer>> trie, List<Integer> terminal,
+            List<Long> terminalBits, String keyword) {
+        int node = 0;
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = fold(keyword.charAt(i));
+            Integer next = trie.get(node).get(c);
+            if (next == null) {
+                next = trie.size();
+                trie.get(node).put(c, next);
+                trie.add(new TreeMap<>());
+                terminal.add(NO_MATCH);
+                terminalBits.add(0L);
+            }
+            node = next;
+        }
+        return node;
+    }
+
+    private int step(int node, char c) {
+        int i = Arrays.binarySearch(edgeChars, rowStart[node], rowStart[node + 1], c);
+        return i >= 0 ? edgeTargets[i] : -1;
+    }
+
+    private int better(int a, int b) {
+        if (a == NO_MATCH) {
+            return b;
+        }
+        if (b == NO_MATCH) {
+            return a;
+        }
+        return priorities[b] > priorities[a] ? b : a;
+    }
+
+    /** Turkish lower-case folding: I → ı and İ → i, everything else per Unicode. */
+    static char fold(char c) {
+        return switch (c) {
+            case 'I' -> 'ı';
+            case 'İ' -> 'i';
+            default -> Character.toLowerCase(c);
+        };
+    }
+}
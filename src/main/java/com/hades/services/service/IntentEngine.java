@@ -0,0 +1,106 @@
+package com.hades.services.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Keyword intents for the chat assistant, loaded from a JSON file and
+ * compiled into an {@link IntentAutomaton}. The file is re-read when its
+ * modification time changes; a broken edit is logged and the previous
+ * intents stay active.
+ */
+@Component
+@RequiredArgsConstructor
+public class IntentEngine {
+
+    public record IntentFile(String imageReply, String emptyReply, String fallbackReply, List<Intent> intents) {
+    }
+
+    /**
+     * An intent matches when any of {@code keywords} occurs, or when every group
+     * in {@code allOf} has one of its keywords in the message.
+     */
+    public record Intent(String name, int priority, List<String> keywords, List<List<String>> allOf,
+            String response) {
+    }
+
+    private record Compiled(IntentFile file, IntentAutomaton automaton, long lastModified) {
+    }
+
+    private final ResourceLoader resourceLoader;
+    private final JsonMapper jsonMapper;
+
+    @Value("${hades.chat.intents-location:classpath:chat-intents.json}")
+    private String location;
+
+    private volatile Compiled compiled;
+
+    @PostConstruct
+    void load() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        compiled = compile(resource, lastModified(resource));
+    }
+
+    @Scheduled(fixedDelayString = "${hades.chat.intents-reload-ms:10000}")
+    void reloadIfChanged() {
+        Resource resource = resourceLoader.getResource(location);
+        long modified = lastModified(resource);
+        if (modified == 0 || modified == compiled.lastModified()) {
+            return;
+        }
+        try {
+            compiled = compile(resource, modified);
+            System.out.println("Reloaded chat intents from " + location);
+        } catch (Exception e) {
+            System.err.println("Failed to reload chat intents, keeping previous set: " + e.getMessage());
+        }
+    }
+
+    public String reply(String message, String imageUrl) {
+        IntentFile file = compiled.file();
+        if (imageUrl != null && !imageUrl.isEmpty()) {
+            return file.imageReply();
+        }
+        if (message == null) {
+            return file.emptyReply();
+        }
+        int intent = compiled.automaton().match(message);
+        return intent == IntentAutomaton.NO_MATCH ? file.fallbackReply() : file.intents().get(intent).response();
+    }
+
+    private Compiled compile(Resource resource, long lastModified) throws IOException {
+        IntentFile file;
+        try (InputStream in = resource.getInputStream()) {
+            file = jsonMapper.readValue(in, IntentFile.class);
+        }
+        if (file.intents() == null || file.fallbackReply() == null) {
+            throw new IllegalArgumentException("Intent file must define intents and fallbackReply");
+        }
+
+        List<List<String>> keywords = file.intents().stream()
+                .map(intent -> intent.keywords() == null ? List.<String>of() : intent.keywords())
+                .toList();
+        List<List<List<String>>> allOf = file.intents().stream().map(Intent::allOf).toList();
+        int[] priorities = file.intents().stream().mapToInt(Intent::priority).toArray();
+        return new Compiled(file, new IntentAutomaton(keywords, allOf, priorities), lastModified);
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // Packaged inside the jar: nothing to watch
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hades.services.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keyword-matching mock responder backed by {@link IntentEngine}. The canned
+ * reply is emitted word by word so the streaming endpoint behaves like a
+ * real model would.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeywordChatResponder implements ChatResponder {
+
+    private static final Pattern TOKEN = Pattern.compile("\\S+\\s*|\\s+");
+
+    private final IntentEngine intentEngine;
+
+    @Override
+    public void respond(String message, String imageUrl, Consumer<String> onToken) throws InterruptedException {
+        Matcher matcher = TOKEN.matcher(intentEngine.reply(message, imageUrl));
+        while (matcher.find()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            onToken.accept(matcher.group());
+        }
+    }
+
+    @Override
+    public String respond(String message, String imageUrl) {
+        return intentEngine.reply(message, imageUrl);
+    }
+}
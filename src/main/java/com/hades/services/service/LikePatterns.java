@@ -0,0 +1,35 @@
+package com.hades.services.service;
+
+import java.util.Locale;
+
+/**
+ * LIKE patterns built from user input. {@code \}, {@code %} and {@code _} are
+ * escaped, so queries must declare {@code ESCAPE '\'}.
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    /** Lower-cased {@code term%}, or null for a blank term. */
+    public static String prefix(String term) {
+        String escaped = escape(term);
+        return escaped != null ? escaped + "%" : null;
+    }
+
+    /** Lower-cased {@code %term%}, or null for a blank term. */
+    public static String contains(String term) {
+        String escaped = escape(term);
+        return escaped != null ? "%" + escaped + "%" : null;
+    }
+
+    private static String escape(String term) {
+        if (term == null || term.isBlank()) {
+            return null;
+        }
+        return term.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,36 @@
+package com.hades.services.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stand-in for local development and tests. Accounts vanish on
+ * restart and passwords are not kept.
+ */
+@Component
+@ConditionalOnProperty(name = "hades.identity.provider", havingValue = "local")
+public class LocalIdentityProvider implements IdentityProvider {
+
+    private final Map<String, String> uidsByEmail = new ConcurrentHashMap<>();
+
+    @Override
+    public String createUser(String email, String password, String displayName) throws IdentityProviderException {
+        String key = email.toLowerCase(Locale.ROOT);
+        String uid = "local-" + UUID.randomUUID();
+        if (uidsByEmail.putIfAbsent(key, uid) != null) {
+            throw new IdentityProviderException(IdentityProviderException.Reason.ALREADY_EXISTS,
+                    "Email already registered: " + email);
+        }
+        return uid;
+    }
+
+    @Override
+    public void deleteUser(String uid) {
+        uidsByEmail.values().remove(uid);
+    }
+}
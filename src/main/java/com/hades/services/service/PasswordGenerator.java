@@ -0,0 +1,24 @@
+package com.hades.services.service;
+
+import java.security.SecureRandom;
+
+/**
+ * One-time passwords handed out when an administrator creates an account.
+ * Look-alike characters (0/O, 1/l/I) are left out so they can be read aloud.
+ */
+public final class PasswordGenerator {
+
+    private static final String CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghjkmnpqrstuvwxyz23456789";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private PasswordGenerator() {
+    }
+
+    public static String generate(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(CHARS.charAt(RANDOM.nextInt(CHARS.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,175 @@
+package com.hades.services.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Streams every report of an earthquake straight from a forward-only JDBC cursor,
+ * so memory stays flat regardless of how many rows are exported.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportExportService {
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String[] COLUMNS = {
+            "id", "droneImageId", "earthquakeId", "eventName", "droneId", "droneName", "location",
+            "imageName", "title", "report", "collapsedBuildings", "damagedStructures", "blockedRoads",
+            "severityScore", "status", "createdAt"
+    };
+
+    private static final String EXPORT_SQL = "SELECT id, drone_image_id, earthquake_id, event_name, drone_id, " +
+            "drone_name, location, image_name, title, report, collapsed_buildings, damaged_structures, " +
+            "blocked_roads, severity_score, LOWER(status), created_at " +
+            "FROM reports WHERE earthquake_id = ? ORDER BY created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final JsonMapper jsonMapper;
+
+    public void export(UUID earthquakeId, Format format, OutputStream out) throws IOException {
+        // PostgreSQL only honours the fetch size (server-side cursor) inside a transaction
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        try {
+            if (format == Format.NDJSON) {
+                // No root separator: Jackson's default would prefix every row after the first with a space
+                try (JsonGenerator generator = jsonMapper.writer().withRootValueSeparator("").createGenerator(out)) {
+                    transaction.executeWithoutResult(status -> query(earthquakeId, new NdjsonWriter(generator, out)));
+                }
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writeCsvLine(writer, COLUMNS);
+                writer.flush();
+                transaction.executeWithoutResult(status -> query(earthquakeId, new CsvWriter(writer)));
+                writer.flush();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void query(UUID earthquakeId, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setObject(1, earthquakeId);
+            return statement;
+        }, handler);
+    }
+
+    private static Object readValue(ResultSet rs, int index) throws SQLException {
+        Object value = rs.getObject(index);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value;
+    }
+
+    private static final class NdjsonWriter implements RowCallbackHandler {
+        private final JsonGenerator generator;
+        private final OutputStream out;
+        private boolean first = true;
+
+        NdjsonWriter(JsonGenerator generator, OutputStream out) {
+            this.generator = generator;
+            this.out = out;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                generator.writeName(COLUMNS[i]);
+                generator.writePOJO(readValue(rs, i + 1));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+            // Push the first row out immediately so clients see progress at once
+            if (first) {
+                first = false;
+                generator.flush();
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    private static final class CsvWriter implements RowCallbackHandler {
+        private final Writer writer;
+        private final String[] values = new String[COLUMNS.length];
+        private boolean first = true;
+
+        CsvWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = readValue(rs, i + 1);
+                values[i] = value != null ? value.toString() : null;
+            }
+            try {
+                writeCsvLine(writer, values);
+                if (first) {
+                    first = false;
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
@@ -1,17 +1,24 @@
 package com.hades.services.service;
 
-import com.hades.services.model.DroneImage;
+import com.hades.services.cache.EventNameCache;
+import com.hades.services.model.BoundingBox;
+import com.hades.services.model.PendingImage;
 import com.hades.services.model.Report;
+import com.hades.services.model.ReportSearchHit;
+import com.hades.services.model.ReportSearchResult;
 import com.hades.services.repository.DroneImageRepository;
 import com.hades.services.repository.ReportRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,9 +27,15 @@ public class ReportService {
 
     private final ReportRepository reportRepository;
     private final DroneImageRepository droneImageRepository;
+    private final EventNameCache eventNameCache;
+    private final DamageAggregateService damageAggregateService;
+    private final AnalyticsRollupService analyticsRollupService;
 
+    @Transactional
     public Report createReport(Report report) {
-        return reportRepository.save(report);
+        Report saved = reportRepository.save(report);
+        damageAggregateService.reportAdded(saved);
+        return saved;
     }
 
     public List<Report> getAllReports() {
@@ -33,21 +46,45 @@ public class ReportService {
         return reportRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
 
-    public Page<Report> getReportsWithFilters(String eventName, String status, String search, Pageable pageable) {
-        String statusValue = null;
-        if (status != null && !status.isEmpty()) {
-            statusValue = status.toUpperCase();
-        }
-
-        return reportRepository.findWithFilters(
-                eventName != null && !eventName.isEmpty() ? eventName : null,
-                statusValue,
-                search != null && !search.isEmpty() ? search : null,
-                pageable);
+    @Transactional(readOnly = true)
+    public Page<Report> getReportsWithFilters(String eventName, String status, Pageable pageable) {
+        return reportRepository.findWithFilters(normalizeEventName(eventName), normalizeStatus(status), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Report> getReportsInBox(BoundingBox box, String eventName, String status, int limit) {
+        return reportRepository.findInBox(box.minLon(), box.minLat(), box.maxLon(), box.maxLat(),
+                normalizeEventName(eventName), normalizeStatus(status), limit);
+    }
+
+    /**
+     * Full-text search ranked by relevance. Matching ids, ranks and snippets come from
+     * one indexed query; the page of reports is then loaded by primary key.
+     */
+    @Transactional(readOnly = true)
+    public Page<ReportSearchResult> searchReports(String eventName, String status, String search,
+            Pageable pageable) {
+        Page<ReportSearchHit> hits = reportRepository.searchWithFilters(
+                normalizeEventName(eventName), normalizeStatus(status), search, pageable);
+
+        Map<UUID, Report> reports = reportRepository.findAllById(
+                hits.getContent().stream().map(ReportSearchHit::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Report::getId, Function.identity()));
+
+        return hits.map(hit -> new ReportSearchResult(reports.get(hit.getId()), hit.getRank(), hit.getSnippet()));
+    }
+
+    private String normalizeEventName(String eventName) {
+        return eventName != null && !eventName.isEmpty() ? eventName : null;
+    }
+
+    private String normalizeStatus(String status) {
+        return status != null && !status.isEmpty() ? status.toUpperCase() : null;
     }
 
     public List<String> getDistinctEventNames() {
-        return reportRepository.findDistinctEventNames();
+        return eventNameCache.getAll();
     }
 
     public Optional<Report> getReportById(UUID id) {
@@ -66,15 +103,17 @@ public class ReportService {
         return reportRepository.existsByDroneImageId(droneImageId);
     }
 
-    public List<DroneImage> getImagesWithoutReports() {
-        List<DroneImage> allImages = droneImageRepository.findAllByOrderByUploadedAtDesc();
-
-        return allImages.stream()
-                .filter(image -> !reportRepository.existsByDroneImageId(image.getId()))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<PendingImage> getImagesWithoutReports(Pageable pageable) {
+        return droneImageRepository.findPendingImages(pageable);
     }
 
+    @Transactional
     public void deleteReport(UUID id) {
-        reportRepository.deleteById(id);
+        reportRepository.findById(id).ifPresent(report -> {
+            damageAggregateService.reportRemoved(report);
+            analyticsRollupService.reportRemoved(report.getId());
+            reportRepository.delete(report);
+        });
     }
 }
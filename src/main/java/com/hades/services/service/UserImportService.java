@@ -0,0 +1,450 @@
+package com.hades.services.service;
+
+import com.hades.services.model.Role;
+import com.hades.services.model.User;
+import com.hades.services.model.UserImportResult;
+import com.hades.services.model.UserImportRow;
+import com.hades.services.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk account provisioning. Identity provider calls run on virtual threads
+ * with at most {@code hades.users.import.concurrency} in flight across all
+ * imports, retrying transient failures with jittered exponential backoff.
+ * Local rows are inserted in batches once their accounts exist, and every
+ * row's outcome is streamed back as one NDJSON line as soon as it is known.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    /** Rows that passed validation plus the ones already rejected while parsing. */
+    public record Batch(List<UserImportRow> rows, List<UserImportResult> rejected) {
+    }
+
+    /** An account created at the provider ({@code result == null}) or a finished row. */
+    private record Outcome(UserImportRow row, String uid, String password, UserImportResult result) {
+    }
+
+    public static final int MAX_ROWS = 10_000;
+    private static final int CHUNK_SIZE = 100;
+    private static final int PASSWORD_LENGTH = 12;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MS = 250;
+    private static final long PERSIST_WAIT_MS = 200;
+    private static final long IMPORT_TIMEOUT_MS = 30 * 60_000;
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private final IdentityProvider identityProvider;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JsonMapper jsonMapper;
+
+    @Value("${hades.users.import.concurrency:8}")
+    private int concurrency;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(Math.max(concurrency, 1));
+    }
+
+    // ============= Parsing =============
+
+    /**
+     * Reads and validates the whole upload up front so a malformed file is
+     * rejected before any account is created. CSV needs a header row naming
+     * at least {@code email}; other columns are {@code name}, {@code role},
+     * {@code organization} and {@code phone}.
+     *
+     * @throws IllegalArgumentException if the file has no usable header or too many rows
+     */
+    public Batch parse(InputStream in, Format format) throws IOException {
+        List<UserImportRow> rows = new ArrayList<>();
+        List<UserImportResult> rejected = new ArrayList<>();
+        Map<String, Integer> seen = new HashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = null;
+        String text;
+        int line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (rows.size() + rejected.size() >= MAX_ROWS) {
+                throw new IllegalArgumentException("Import is limited to " + MAX_ROWS + " rows");
+            }
+
+            Map<String, String> fields;
+            if (format == Format.CSV) {
+                List<String> values = parseCsvLine(line == 1 ? stripBom(text) : text);
+                if (columns == null) {
+                    columns = header(values);
+                    continue;
+                }
+                fields = new HashMap<>();
+                for (Map.Entry<String, Integer> column : columns.entrySet()) {
+                    if (column.getValue() < values.size()) {
+                        fields.put(column.getKey(), values.get(column.getValue()));
+                    }
+                }
+            } else {
+                try {
+                    fields = jsonMapper.readValue(text, jsonMapper.getTypeFactory()
+                            .constructMapType(HashMap.class, String.class, String.class));
+                } catch (JacksonException e) {
+                    rejected.add(UserImportResult.invalid(line, null, "Malformed JSON"));
+                    continue;
+                }
+            }
+
+            UserImportRow row;
+            try {
+                row = validate(line, fields);
+            } catch (IllegalArgumentException e) {
+                rejected.add(UserImportResult.invalid(line, normalizeEmail(fields.get("email")), e.getMessage()));
+                continue;
+            }
+            Integer firstLine = seen.putIfAbsent(row.email(), line);
+            if (firstLine != null) {
+                rejected.add(UserImportResult.invalid(line, row.email(), "Duplicate of line " + firstLine));
+                continue;
+            }
+            rows.add(row);
+        }
+        if (format == Format.CSV && columns == null) {
+            throw new IllegalArgumentException("CSV header row is missing");
+        }
+        return new Batch(rows, rejected);
+    }
+
+    private static UserImportRow validate(int line, Map<String, String> fields) {
+        String email = normalizeEmail(fields.get("email"));
+        if (email == null || !EMAIL.matcher(email).matches()) {
+            throw new IllegalArgumentException("Invalid email");
+        }
+        String name = trimToNull(fields.get("name"));
+        if (name == null) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        String roleName = trimToNull(fields.get("role"));
+        Role role;
+        try {
+            role = roleName == null ? Role.USER : Role.valueOf(roleName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid role: " + roleName);
+        }
+        // ADMINs should not have organization
+        String organization = role == Role.ADMIN ? null : trimToNull(fields.get("organization"));
+        return new UserImportRow(line, name, email, role, organization, trimToNull(fields.get("phone")));
+    }
+
+    private static Map<String, Integer> header(List<String> values) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            columns.putIfAbsent(values.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("email")) {
+            throw new IllegalArgumentException("CSV header must contain an email column");
+        }
+        return columns;
+    }
+
+    /** RFC 4180 fields within one line; quoted fields may contain commas and doubled quotes. */
+    private static List<String> parseCsvLine(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String stripBom(String text) {
+        return !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+    }
+
+    private static String normalizeEmail(String email) {
+        String trimmed = trimToNull(email);
+        return trimmed != null ? trimmed.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    // ============= Provisioning =============
+
+    /**
+     * Starts the import on background threads and returns the stream its
+     * results are written to. If the client disconnects, rows that have not
+     * reached the identity provider yet are skipped; accounts already being
+     * created are still saved locally so none are left orphaned.
+     */
+    public ResponseBodyEmitter start(Batch batch) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(IMPORT_TIMEOUT_MS);
+        ImportRun run = new ImportRun(batch, emitter);
+        emitter.onTimeout(run::cancel);
+        emitter.onError(e -> run.cancel());
+        executor.submit(run::drive);
+        executor.submit(run::collect);
+        return emitter;
+    }
+
+    private final class ImportRun {
+        private final Batch batch;
+        private final ResponseBodyEmitter emitter;
+        private final BlockingQueue<Outcome> outcomes = new LinkedBlockingQueue<>();
+        private volatile boolean cancelled;
+
+        ImportRun(Batch batch, ResponseBodyEmitter emitter) {
+            this.batch = batch;
+            this.emitter = emitter;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        /** Checks each chunk against existing users, then hands the rest to the provider. */
+        void drive() {
+            List<UserImportRow> rows = batch.rows();
+            for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+                List<UserImportRow> chunk = rows.subList(from, Math.min(from + CHUNK_SIZE, rows.size()));
+                if (cancelled) {
+                    chunk.forEach(row -> outcomes.add(finished(UserImportResult.failed(row, "Import cancelled"))));
+                    continue;
+                }
+
+                Set<String> existing;
+                try {
+                    existing = new HashSet<>(
+                            userRepository.findExistingEmails(chunk.stream().map(UserImportRow::email).toList()));
+                } catch (RuntimeException e) {
+                    System.err.println("User import lookup failed: " + e.getMessage());
+                    chunk.forEach(row -> outcomes.add(finished(UserImportResult.failed(row, "Lookup failed"))));
+                    continue;
+                }
+                for (UserImportRow row : chunk) {
+                    if (existing.contains(row.email())) {
+                        outcomes.add(finished(UserImportResult.exists(row, "User already exists")));
+                        continue;
+                    }
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        cancelled = true;
+                    }
+                    if (cancelled) {
+                        outcomes.add(finished(UserImportResult.failed(row, "Import cancelled")));
+                        continue;
+                    }
+                    executor.submit(() -> {
+                        try {
+                            outcomes.add(provision(row));
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            }
+        }
+
+        private Outcome provision(UserImportRow row) {
+            String password = PasswordGenerator.generate(PASSWORD_LENGTH);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    String uid = identityProvider.createUser(row.email(), password, row.name());
+                    return new Outcome(row, uid, password, null);
+                } catch (IdentityProviderException e) {
+                    if (e.getReason() == IdentityProviderException.Reason.ALREADY_EXISTS) {
+                        return finished(UserImportResult.exists(row, "Account already exists in identity provider"));
+                    }
+                    if (e.getReason() != IdentityProviderException.Reason.TRANSIENT || attempt == MAX_ATTEMPTS) {
+                        return finished(UserImportResult.failed(row, e.getMessage()));
+                    }
+                    try {
+                        Thread.sleep(backoff(attempt));
+                    } catch (InterruptedException interrupted) {
+                        return finished(UserImportResult.failed(row, "Import cancelled"));
+                    }
+                } catch (RuntimeException e) {
+                    return finished(UserImportResult.failed(row, e.getMessage()));
+                }
+            }
+        }
+
+        /**
+         * Streams finished rows as they arrive and saves created accounts in
+         * batches, flushing a partial batch when the queue goes quiet.
+         */
+        void collect() {
+            List<UserImportResult> rejected = batch.rejected();
+            rejected.forEach(this::send);
+
+            List<Outcome> created = new ArrayList<>(CHUNK_SIZE);
+            int remaining = batch.rows().size();
+            try {
+                while (remaining > 0) {
+                    Outcome outcome = created.isEmpty()
+                            ? outcomes.take()
+                            : outcomes.poll(PERSIST_WAIT_MS, TimeUnit.MILLISECONDS);
+                    if (outcome == null) {
+                        persist(created);
+                        continue;
+                    }
+                    remaining--;
+                    if (outcome.result() != null) {
+                        send(outcome.result());
+                    } else {
+                        created.add(outcome);
+                        if (created.size() >= CHUNK_SIZE) {
+                            persist(created);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                persist(created);
+                emitter.complete();
+            }
+        }
+
+        private void persist(List<Outcome> created) {
+            if (created.isEmpty()) {
+                return;
+            }
+            List<User> users = created.stream().map(UserImportService::toUser).toList();
+            try {
+                new TransactionTemplate(transactionManager)
+                        .executeWithoutResult(status -> userRepository.saveAll(users));
+                for (int i = 0; i < created.size(); i++) {
+                    Outcome outcome = created.get(i);
+                    send(UserImportResult.created(outcome.row(), users.get(i).getId(), outcome.password()));
+                }
+            } catch (RuntimeException batchError) {
+                // Find the offending rows one by one; the rest still go in
+                for (Outcome outcome : created) {
+                    send(persistOne(outcome));
+                }
+            }
+            created.clear();
+        }
+
+        private UserImportResult persistOne(Outcome outcome) {
+            User user = toUser(outcome);
+            try {
+                new TransactionTemplate(transactionManager)
+                        .executeWithoutResult(status -> userRepository.save(user));
+                return UserImportResult.created(outcome.row(), user.getId(), outcome.password());
+            } catch (RuntimeException e) {
+                try {
+                    identityProvider.deleteUser(outcome.uid());
+                } catch (IdentityProviderException rollbackError) {
+                    System.err.println("Failed to remove account " + outcome.uid() + ": " + rollbackError.getMessage());
+                }
+                return UserImportResult.failed(outcome.row(), "Could not save user: " + e.getMessage());
+            }
+        }
+
+        private void send(UserImportResult result) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                emitter.send(jsonMapper.writeValueAsString(result) + "\n", NDJSON);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; stop feeding the provider but finish what is in flight
+                cancelled = true;
+            }
+        }
+    }
+
+    private static Outcome finished(UserImportResult result) {
+        return new Outcome(null, null, null, result);
+    }
+
+    private static User toUser(Outcome outcome) {
+        UserImportRow row = outcome.row();
+        User user = new User(row.name(), row.email(), outcome.uid(), row.role());
+        user.setOrganization(row.organization());
+        user.setPhone(row.phone());
+        return user;
+    }
+
+    /** Exponential backoff with equal jitter: half fixed, half random. */
+    private static long backoff(int attempt) {
+        long ceiling = BASE_BACKOFF_MS << (attempt - 1);
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -2,10 +2,15 @@ package com.hades.services.service;
 
 import com.hades.services.model.Role;
 import com.hades.services.model.User;
+import com.hades.services.model.UserSummary;
 import com.hades.services.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,8 +21,10 @@ public class UserService {
 
     private final UserRepository userRepository;
 
-    public List<User> getAll() {
-        return userRepository.findAll();
+    /** Users with one of {@code roles}, optionally in one organization and matching a name or email prefix. */
+    @Transactional(readOnly = true)
+    public Page<UserSummary> search(Collection<Role> roles, String organization, String search, Pageable pageable) {
+        return userRepository.search(roles, organization, LikePatterns.prefix(search), pageable);
     }
 
     public Optional<User> getById(UUID id) {
@@ -64,10 +71,6 @@ public class UserService {
         }).orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public List<User> getByOrganization(String organization) {
-        return userRepository.findByOrganization(organization);
-    }
-
     public User updateOrganization(UUID userId, String organization) {
         return userRepository.findById(userId).map(user -> {
             user.setOrganization(organization);
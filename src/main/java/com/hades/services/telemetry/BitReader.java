@@ -0,0 +1,43 @@
+package com.hades.services.telemetry;
+
+import java.nio.LongBuffer;
+
+/** Sequential reader over words produced by {@link BitWriter}. */
+final class BitReader {
+
+    private final LongBuffer words;
+    private final int offset;
+    private long position;
+
+    BitReader(LongBuffer words, int offset) {
+        this.words = words;
+        this.offset = offset;
+    }
+
+    long read(int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+        int index = offset + (int) (position >>> 6);
+        int used = (int) (position & 63);
+        position += bits;
+
+        long word = words.get(index);
+        int available = 64 - used;
+        long value;
+        if (bits <= available) {
+            value = word >>> (available - bits);
+        } else {
+            int spill = bits - available;
+            value = (word << spill) | (words.get(index + 1) >>> (64 - spill));
+        }
+        return bits == 64 ? value : value & ((1L << bits) - 1);
+    }
+
+    boolean readBit() {
+        int index = offset + (int) (position >>> 6);
+        int shift = 63 - (int) (position & 63);
+        position++;
+        return ((words.get(index) >>> shift) & 1) != 0;
+    }
+}
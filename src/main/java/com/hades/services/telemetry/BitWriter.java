@@ -0,0 +1,59 @@
+package com.hades.services.telemetry;
+
+import java.util.Arrays;
+
+/** Append-only bit buffer backed by big-endian 64-bit words. */
+final class BitWriter {
+
+    private long[] words;
+    private long bitLength;
+
+    BitWriter(int initialWords) {
+        this.words = new long[Math.max(1, initialWords)];
+    }
+
+    /** Writes the low {@code bits} bits of {@code value}, most significant first. */
+    void write(long value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+        int index = (int) (bitLength >>> 6);
+        int used = (int) (bitLength & 63);
+        ensureCapacity(index + 2);
+
+        int free = 64 - used;
+        if (bits <= free) {
+            words[index] |= value << (free - bits);
+        } else {
+            int spill = bits - free;
+            words[index] |= value >>> spill;
+            words[index + 1] |= value << (64 - spill);
+        }
+        bitLength += bits;
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    long bitLength() {
+        return bitLength;
+    }
+
+    int wordCount() {
+        return (int) ((bitLength + 63) >>> 6);
+    }
+
+    long[] copyWords() {
+        return Arrays.copyOf(words, wordCount());
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > words.length) {
+            words = Arrays.copyOf(words, Math.max(needed, words.length * 2));
+        }
+    }
+}
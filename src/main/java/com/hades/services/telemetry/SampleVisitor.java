@@ -0,0 +1,8 @@
+package com.hades.services.telemetry;
+
+/** Receives decoded samples without boxing. */
+@FunctionalInterface
+interface SampleVisitor {
+
+    void accept(long timestamp, double battery, double altitude);
+}
@@ -0,0 +1,205 @@
+package com.hades.services.telemetry;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Gorilla-style codec for one run of drone samples: delta-of-delta encoded
+ * millisecond timestamps followed by XOR-encoded battery and altitude. A
+ * steady 1 Hz stream with unchanged values costs three bits per sample.
+ *
+ * <p>Layout, in big-endian longs: magic, sample count, first timestamp,
+ * last timestamp, bit length, then the bit stream.
+ */
+final class Segment {
+
+    static final long MAGIC = 0x4841444553540001L; // "HADEST" v1
+    static final int HEADER_WORDS = 5;
+    static final int VALUES = 2;
+
+    private Segment() {
+    }
+
+    /** Incremental encoder for the open segment of one drone; not thread-safe. */
+    static final class Encoder {
+
+        private final BitWriter out = new BitWriter(64);
+        private int count;
+        private long firstTimestamp;
+        private long lastTimestamp;
+        private long lastDelta;
+        private final long[] lastValues = new long[VALUES];
+        private final int[] lastLeading = new int[VALUES];
+        private final int[] lastTrailing = new int[VALUES];
+
+        void append(long timestamp, double battery, double altitude) {
+            if (count == 0) {
+                firstTimestamp = timestamp;
+                lastValues[0] = Double.doubleToRawLongBits(battery);
+                lastValues[1] = Double.doubleToRawLongBits(altitude);
+                out.write(lastValues[0], 64);
+                out.write(lastValues[1], 64);
+                Arrays.fill(lastLeading, Integer.MAX_VALUE);
+            } else {
+                long delta = timestamp - lastTimestamp;
+                writeTimestamp(delta - lastDelta);
+                lastDelta = delta;
+                writeValue(0, Double.doubleToRawLongBits(battery));
+                writeValue(1, Double.doubleToRawLongBits(altitude));
+            }
+            lastTimestamp = timestamp;
+            count++;
+        }
+
+        private void writeTimestamp(long dod) {
+            if (dod == 0) {
+                out.write(0b0, 1);
+            } else if (dod >= -64 && dod <= 63) {
+                out.write(0b10, 2);
+                out.write(dod, 7);
+            } else if (dod >= -256 && dod <= 255) {
+                out.write(0b110, 3);
+                out.write(dod, 9);
+            } else if (dod >= -2048 && dod <= 2047) {
+                out.write(0b1110, 4);
+                out.write(dod, 12);
+            } else {
+                out.write(0b1111, 4);
+                out.write(dod, 64);
+            }
+        }
+
+        private void writeValue(int column, long bits) {
+            long xor = bits ^ lastValues[column];
+            lastValues[column] = bits;
+            if (xor == 0) {
+                out.write(0b0, 1);
+                return;
+            }
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= lastLeading[column] && trailing >= lastTrailing[column]) {
+                // Fits the previous window: reuse its position
+                out.write(0b10, 2);
+                out.write(xor >>> lastTrailing[column], 64 - lastLeading[column] - lastTrailing[column]);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                out.write(0b11, 2);
+                out.write(leading, 5);
+                out.write(meaningful - 1, 6);
+                out.write(xor >>> trailing, meaningful);
+                lastLeading[column] = leading;
+                lastTrailing[column] = trailing;
+            }
+        }
+
+        int count() {
+            return count;
+        }
+
+        long firstTimestamp() {
+            return firstTimestamp;
+        }
+
+        long lastTimestamp() {
+            return lastTimestamp;
+        }
+
+        /** Header plus stream, ready to write to disk or scan in place. */
+        long[] toWords() {
+            long[] data = out.copyWords();
+            long[] words = new long[HEADER_WORDS + data.length];
+            words[0] = MAGIC;
+            words[1] = count;
+            words[2] = firstTimestamp;
+            words[3] = lastTimestamp;
+            words[4] = out.bitLength();
+            System.arraycopy(data, 0, words, HEADER_WORDS, data.length);
+            return words;
+        }
+    }
+
+    static long firstTimestamp(LongBuffer words) {
+        return words.get(2);
+    }
+
+    static long lastTimestamp(LongBuffer words) {
+        return words.get(3);
+    }
+
+    /**
+     * Decodes samples with {@code from <= timestamp <= to}. Timestamps are
+     * monotonic, so decoding stops at the first sample past {@code to}.
+     */
+    static void scan(LongBuffer words, long from, long to, SampleVisitor visitor) {
+        if (words.get(0) != MAGIC) {
+            throw new IllegalStateException("Not a telemetry segment");
+        }
+        int count = (int) words.get(1);
+        if (count == 0 || words.get(3) < from || words.get(2) > to) {
+            return;
+        }
+
+        BitReader in = new BitReader(words, HEADER_WORDS);
+        long timestamp = words.get(2);
+        long delta = 0;
+        long battery = in.read(64);
+        long altitude = in.read(64);
+        int batteryLeading = 0;
+        int batteryTrailing = 0;
+        int altitudeLeading = 0;
+        int altitudeTrailing = 0;
+
+        for (int i = 0; ; ) {
+            if (timestamp > to) {
+                return;
+            }
+            if (timestamp >= from) {
+                visitor.accept(timestamp, Double.longBitsToDouble(battery), Double.longBitsToDouble(altitude));
+            }
+            if (++i == count) {
+                return;
+            }
+
+            delta += readDeltaOfDelta(in);
+            timestamp += delta;
+
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    batteryLeading = (int) in.read(5);
+                    int meaningful = (int) in.read(6) + 1;
+                    batteryTrailing = 64 - batteryLeading - meaningful;
+                }
+                battery ^= in.read(64 - batteryLeading - batteryTrailing) << batteryTrailing;
+            }
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    altitudeLeading = (int) in.read(5);
+                    int meaningful = (int) in.read(6) + 1;
+                    altitudeTrailing = 64 - altitudeLeading - meaningful;
+                }
+                altitude ^= in.read(64 - altitudeLeading - altitudeTrailing) << altitudeTrailing;
+            }
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader in) {
+        if (!in.readBit()) {
+            return 0;
+        }
+        if (!in.readBit()) {
+            return signExtend(in.read(7), 7);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.read(9), 9);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.read(12), 12);
+        }
+        return in.read(64);
+    }
+
+    private static long signExtend(long value, int bits) {
+        return (value << (64 - bits)) >> (64 - bits);
+    }
+}
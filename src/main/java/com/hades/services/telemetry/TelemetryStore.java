@@ -0,0 +1,345 @@
+package com.hades.services.telemetry;
+
+import com.hades.services.model.TelemetryPoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only telemetry history on local disk, one directory per drone.
+ * Samples go into an in-memory {@link Segment.Encoder}; after an hour or
+ * {@value #SEGMENT_MAX_SAMPLES} samples the segment is sealed into an
+ * immutable {@code <firstTimestamp>.seg} file, and queries memory-map the
+ * sealed files and decode them in place. The open segment is checkpointed
+ * to a {@code .open} file so a crash loses at most one checkpoint interval.
+ */
+@Component
+public class TelemetryStore {
+
+    private static final int SEGMENT_MAX_SAMPLES = 16_384;
+    private static final long SEGMENT_MAX_SPAN_MS = 3_600_000;
+    private static final String SEALED = ".seg";
+    private static final String OPEN = ".open";
+
+    private static final class Series {
+        private final Path dir;
+        private Segment.Encoder open;
+        private long lastTimestamp;
+        private boolean dirty;
+
+        Series(Path dir, long lastTimestamp) {
+            this.dir = dir;
+            this.lastTimestamp = lastTimestamp;
+        }
+    }
+
+    private final Path root;
+    private final Map<UUID, Series> series = new ConcurrentHashMap<>();
+
+    public TelemetryStore(@Value("${hades.telemetry.store-dir:data/telemetry}") String root) {
+        this.root = Path.of(root);
+    }
+
+    /** Promotes checkpoints left by a previous run to sealed segments. */
+    @PostConstruct
+    void recover() throws IOException {
+        Files.createDirectories(root);
+        try (Stream<Path> drones = Files.list(root)) {
+            for (Path dir : drones.filter(Files::isDirectory).toList()) {
+                for (Path partial : list(dir, ".tmp")) {
+                    Files.delete(partial);
+                }
+                for (Path checkpoint : list(dir, OPEN)) {
+                    Path sealed = sibling(checkpoint, SEALED);
+                    if (Files.exists(sealed)) {
+                        Files.delete(checkpoint);
+                    } else {
+                        Files.move(checkpoint, sealed, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Appends one sample; samples not newer than the drone's last one are ignored. */
+    public void append(UUID droneId, long timestamp, double battery, double altitude) {
+        Series s = series.computeIfAbsent(droneId, this::openSeries);
+        synchronized (s) {
+            if (timestamp <= s.lastTimestamp) {
+                return;
+            }
+            if (s.open != null && (s.open.count() >= SEGMENT_MAX_SAMPLES
+                    || timestamp - s.open.firstTimestamp() >= SEGMENT_MAX_SPAN_MS)) {
+                seal(s);
+            }
+            if (s.open == null) {
+                s.open = new Segment.Encoder();
+            }
+            s.open.append(timestamp, battery, altitude);
+            s.lastTimestamp = timestamp;
+            s.dirty = true;
+        }
+    }
+
+    /**
+     * Samples in {@code [from, to]}, averaged into {@code stepMs} buckets when
+     * {@code stepMs > 0}.
+     */
+    public List<TelemetryPoint> query(UUID droneId, long from, long to, long stepMs) {
+        Path dir = root.resolve(droneId.toString());
+        Downsampler sink = new Downsampler(from, stepMs);
+
+        // Snapshot the open segment before listing files: a seal in between then shows up twice, and the
+        // sink drops the repeat, rather than not at all
+        long[] open = null;
+        Series s = series.get(droneId);
+        if (s != null) {
+            synchronized (s) {
+                if (s.open != null) {
+                    open = s.open.toWords();
+                }
+            }
+        }
+
+        // A segment holds samples in [first, first + SEGMENT_MAX_SPAN_MS), so its file name alone rules it
+        // in or out; only the few overlapping segments get mapped, and scan checks their last timestamp
+        long earliest = from < Long.MIN_VALUE + SEGMENT_MAX_SPAN_MS ? Long.MIN_VALUE : from - SEGMENT_MAX_SPAN_MS;
+        try {
+            for (Path segment : list(dir, SEALED)) {
+                long first = firstTimestampOf(segment);
+                if (first > to) {
+                    break;
+                }
+                if (first > earliest) {
+                    Segment.scan(map(segment), from, to, sink);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (open != null) {
+            Segment.scan(LongBuffer.wrap(open), from, to, sink);
+        }
+        return sink.finish();
+    }
+
+    /** Drops a drone's history, in memory and on disk. */
+    public void delete(UUID droneId) {
+        Series s = series.remove(droneId);
+        if (s != null) {
+            synchronized (s) {
+                s.open = null;
+                s.dirty = false;
+            }
+        }
+        Path dir = root.resolve(droneId.toString());
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            System.err.println("Failed to delete telemetry history " + dir + ": " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hades.telemetry.checkpoint-ms:10000}")
+    void checkpoint() {
+        long now = System.currentTimeMillis();
+        series.values().forEach(s -> {
+            synchronized (s) {
+                if (s.open == null) {
+                    return;
+                }
+                // Quiet drones still get their segment sealed on time
+                if (now - s.open.firstTimestamp() >= SEGMENT_MAX_SPAN_MS) {
+                    seal(s);
+                } else if (s.dirty) {
+                    write(s, OPEN);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        series.values().forEach(s -> {
+            synchronized (s) {
+                if (s.open != null) {
+                    seal(s);
+                }
+            }
+        });
+    }
+
+    private Series openSeries(UUID droneId) {
+        Path dir = root.resolve(droneId.toString());
+        long last = Long.MIN_VALUE;
+        try {
+            Files.createDirectories(dir);
+            // Timestamps increase across segments, so the newest one holds the last sample
+            List<Path> sealed = list(dir, SEALED);
+            if (!sealed.isEmpty()) {
+                last = Segment.lastTimestamp(map(sealed.getLast()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Series(dir, last);
+    }
+
+    // Caller holds the series lock
+    private void seal(Series s) {
+        if (write(s, SEALED)) {
+            try {
+                Files.deleteIfExists(s.dir.resolve(s.open.firstTimestamp() + OPEN));
+            } catch (IOException e) {
+                // Recovery discards a checkpoint that has a sealed twin
+            }
+            s.open = null;
+        }
+    }
+
+    // Caller holds the series lock; writes to a temp file and renames so readers never see a partial segment
+    private boolean write(Series s, String suffix) {
+        long[] words = s.open.toWords();
+        ByteBuffer bytes = ByteBuffer.allocate(words.length * Long.BYTES);
+        bytes.asLongBuffer().put(words);
+        Path target = s.dir.resolve(s.open.firstTimestamp() + suffix);
+        Path temp = s.dir.resolve(s.open.firstTimestamp() + suffix + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("Failed to write telemetry segment " + target + ": " + e.getMessage());
+            return false;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Failed to publish telemetry segment " + target + ": " + e.getMessage());
+            return false;
+        }
+        s.dirty = false;
+        return true;
+    }
+
+    private static LongBuffer map(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel closes
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer();
+        }
+    }
+
+    private static List<Path> list(Path dir, String suffix) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(suffix))
+                    .sorted((a, b) -> Long.compare(firstTimestampOf(a), firstTimestampOf(b)))
+                    .toList();
+        }
+    }
+
+    private static long firstTimestampOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(firstTimestampOf(file) + suffix);
+    }
+
+    /** Collects raw samples or per-bucket averages; drops repeats of already-seen timestamps. */
+    private static final class Downsampler implements SampleVisitor {
+        private final long origin;
+        private final long step;
+        private final List<TelemetryPoint> points = new ArrayList<>();
+        private long lastSeen = Long.MIN_VALUE;
+        private long bucket = Long.MIN_VALUE;
+        private double batterySum;
+        private int batteryCount;
+        private double altitudeSum;
+        private int altitudeCount;
+        private int samples;
+
+        Downsampler(long origin, long step) {
+            this.origin = origin;
+            this.step = step;
+        }
+
+        @Override
+        public void accept(long timestamp, double battery, double altitude) {
+            if (timestamp <= lastSeen) {
+                return;
+            }
+            lastSeen = timestamp;
+            if (step <= 0) {
+                points.add(new TelemetryPoint(Instant.ofEpochMilli(timestamp), valueOf(battery), valueOf(altitude), 1));
+                return;
+            }
+
+            long start = origin + Math.floorDiv(timestamp - origin, step) * step;
+            if (start != bucket) {
+                emit();
+                bucket = start;
+            }
+            if (!Double.isNaN(battery)) {
+                batterySum += battery;
+                batteryCount++;
+            }
+            if (!Double.isNaN(altitude)) {
+                altitudeSum += altitude;
+                altitudeCount++;
+            }
+            samples++;
+        }
+
+        List<TelemetryPoint> finish() {
+            emit();
+            return points;
+        }
+
+        private void emit() {
+            if (samples == 0) {
+                return;
+            }
+            points.add(new TelemetryPoint(Instant.ofEpochMilli(bucket),
+                    batteryCount == 0 ? null : batterySum / batteryCount,
+                    altitudeCount == 0 ? null : altitudeSum / altitudeCount,
+                    samples));
+            batterySum = altitudeSum = 0;
+            batteryCount = altitudeCount = samples = 0;
+        }
+
+        private static Double valueOf(double value) {
+            return Double.isNaN(value) ? null : value;
+        }
+    }
+}
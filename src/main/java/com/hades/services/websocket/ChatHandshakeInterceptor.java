@@ -0,0 +1,54 @@
+package com.hades.services.websocket;
+
+import com.hades.services.model.User;
+import com.hades.services.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Authenticates the chat socket once, at the upgrade request. The security
+ * chain has already verified the session cookie, so only the user lookup
+ * happens here; the user id then rides along in the socket attributes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatHandshakeInterceptor implements HandshakeInterceptor {
+
+    static final String USER_ID = "userId";
+    static final String FIREBASE_UID = "firebaseUid";
+
+    private final UserService userService;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Optional<User> user = authentication != null && authentication.getPrincipal() instanceof Jwt jwt
+                ? userService.findByFirebaseUid(jwt.getSubject())
+                : Optional.empty();
+
+        if (user.isEmpty()) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(USER_ID, user.get().getId());
+        attributes.put(FIREBASE_UID, user.get().getFirebaseUid());
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.hades.services.websocket;
+
+import com.hades.services.model.ChatSession;
+import com.hades.services.model.ChatSocketEvent;
+import com.hades.services.model.ChatSocketRequest;
+import com.hades.services.security.web.RateLimitFilter;
+import com.hades.services.service.ChatResponder;
+import com.hades.services.service.ChatService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.PongMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Chat over a single WebSocket per client. Each {@code message} frame is
+ * answered with {@code token} frames and a final {@code done}, and the
+ * exchange goes through {@link ChatService#recordExchange} like the HTTP
+ * endpoints.
+ *
+ * <p>Each {@code message} frame takes a token from the user's {@code chat}
+ * bucket in {@link RateLimitFilter}, so a socket cannot outpace the HTTP
+ * chat endpoints.
+ *
+ * <p>Backpressure is per connection: one reply is generated at a time, and
+ * outbound frames go through a bounded {@link ConcurrentWebSocketSessionDecorator}
+ * that closes the socket if the client stops reading. Idle connections are
+ * pinged and dropped when they stop answering.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatWebSocketHandler extends TextWebSocketHandler {
+
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 256 * 1024;
+    private static final long IDLE_TIMEOUT_MS = 90_000;
+    private static final String RATE_LIMIT_RULE = "chat";
+
+    private final ChatService chatService;
+    private final ChatResponder chatResponder;
+    private final JsonMapper jsonMapper;
+    private final RateLimitFilter rateLimitFilter;
+
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private enum Phase {
+        GENERATING, PERSISTING, CANCELLED
+    }
+
+    /** A reply in progress; only the generating phase may be interrupted, never the save. */
+    private record Reply(Future<?> future, AtomicReference<Phase> phase) {
+
+        void cancel() {
+            if (phase.compareAndSet(Phase.GENERATING, Phase.CANCELLED)) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static final class Connection {
+        private final WebSocketSession socket;
+        private final UUID userId;
+        private final String firebaseUid;
+        private final Set<UUID> ownedSessions = ConcurrentHashMap.newKeySet();
+        private final AtomicReference<Reply> inFlight = new AtomicReference<>();
+        private volatile long lastSeen = System.currentTimeMillis();
+
+        Connection(WebSocketSession socket, UUID userId, String firebaseUid) {
+            this.socket = socket;
+            this.userId = userId;
+            this.firebaseUid = firebaseUid;
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession socket = new ConcurrentWebSocketSessionDecorator(
+                session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT_BYTES);
+        UUID userId = (UUID) session.getAttributes().get(ChatHandshakeInterceptor.USER_ID);
+        String firebaseUid = (String) session.getAttributes().get(ChatHandshakeInterceptor.FIREBASE_UID);
+        connections.put(session.getId(), new Connection(socket, userId, firebaseUid));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage frame) throws IOException {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+        connection.lastSeen = System.currentTimeMillis();
+
+        ChatSocketRequest request;
+        try {
+            request = jsonMapper.readValue(frame.getPayload(), ChatSocketRequest.class);
+        } catch (JacksonException e) {
+            send(connection, ChatSocketEvent.error(null, "Geçersiz mesaj."));
+            return;
+        }
+
+        if ("ping".equals(request.type())) {
+            send(connection, ChatSocketEvent.pong());
+        } else if ("message".equals(request.type())) {
+            startReply(connection, request);
+        } else {
+            send(connection, ChatSocketEvent.error(request.requestId(), "Bilinmeyen mesaj türü."));
+        }
+    }
+
+    @Override
+    protected void handlePongMessage(WebSocketSession session, PongMessage message) {
+        Connection connection = connections.get(session.getId());
+        if (connection != null) {
+            connection.lastSeen = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = connections.remove(session.getId());
+        if (connection != null) {
+            Reply running = connection.inFlight.get();
+            if (running != null) {
+                running.cancel();
+            }
+        }
+    }
+
+    private void startReply(Connection connection, ChatSocketRequest request) throws IOException {
+        long waitNanos = rateLimitFilter.tryAcquire(RATE_LIMIT_RULE, connection.firebaseUid);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            send(connection, ChatSocketEvent.error(request.requestId(),
+                    "Çok fazla mesaj gönderildi. " + retryAfterSeconds + " saniye sonra tekrar deneyin."));
+            return;
+        }
+        if (request.message() == null || request.message().isBlank()) {
+            send(connection, ChatSocketEvent.error(request.requestId(), "Mesaj boş olamaz."));
+            return;
+        }
+        if (request.sessionId() == null || !ownsSession(connection, request.sessionId())) {
+            send(connection, ChatSocketEvent.error(request.requestId(), "Sohbet bulunamadı."));
+            return;
+        }
+
+        Reply previous = connection.inFlight.get();
+        if (previous != null && !previous.future().isDone()) {
+            send(connection, ChatSocketEvent.error(request.requestId(), "Önceki yanıt henüz tamamlanmadı."));
+            return;
+        }
+        AtomicReference<Phase> phase = new AtomicReference<>(Phase.GENERATING);
+        connection.inFlight.set(new Reply(executor.submit(() -> generate(connection, request, phase)), phase));
+    }
+
+    private boolean ownsSession(Connection connection, UUID sessionId) {
+        if (connection.ownedSessions.contains(sessionId)) {
+            return true;
+        }
+        Optional<ChatSession> session = chatService.getSession(sessionId);
+        if (session.isPresent() && session.get().getUserId().equals(connection.userId)) {
+            connection.ownedSessions.add(sessionId);
+            return true;
+        }
+        return false;
+    }
+
+    private void generate(Connection connection, ChatSocketRequest request, AtomicReference<Phase> phase) {
+        StringBuilder reply = new StringBuilder();
+        try {
+            chatResponder.respond(request.message(), request.image(), token -> {
+                reply.append(token);
+                sendUnchecked(connection, ChatSocketEvent.token(request.requestId(), token));
+            });
+            if (!phase.compareAndSet(Phase.GENERATING, Phase.PERSISTING)) {
+                // Socket closed after the last token; drop the reply like any other cancel
+                return;
+            }
+            chatService.recordExchange(request.sessionId(), connection.userId, request.message(), request.image(),
+                    reply.toString());
+            send(connection, ChatSocketEvent.done(request.requestId(), reply.toString()));
+        } catch (InterruptedException | UncheckedIOException | IOException e) {
+            // Socket closed mid-reply; drop the partial answer
+        } catch (Exception e) {
+            System.err.println("Chat socket error: " + e.getMessage());
+            sendQuietly(connection, ChatSocketEvent.error(request.requestId(), "Yanıt oluşturulamadı."));
+        }
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    void heartbeat() {
+        long now = System.currentTimeMillis();
+        connections.values().forEach(connection -> {
+            try {
+                if (now - connection.lastSeen > IDLE_TIMEOUT_MS) {
+                    connection.socket.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } else {
+                    connection.socket.sendMessage(new PingMessage());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Closed concurrently; afterConnectionClosed cleans up
+            }
+        });
+    }
+
+    private void send(Connection connection, ChatSocketEvent event) throws IOException {
+        connection.socket.sendMessage(new TextMessage(jsonMapper.writeValueAsString(event)));
+    }
+
+    private void sendUnchecked(Connection connection, ChatSocketEvent event) {
+        try {
+            send(connection, event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sendQuietly(Connection connection, ChatSocketEvent event) {
+        try {
+            send(connection, event);
+        } catch (IOException e) {
+            // Client already gone
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,110 @@
+-- Runs after Hibernate's ddl-auto update (spring.jpa.defer-datasource-initialization)
+-- for schema objects JPA annotations cannot express. Every statement must be idempotent.
+
+-- Full-text search over reports, Turkish stemming, weighted by field
+ALTER TABLE reports ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('turkish', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('turkish', coalesce(location, '')), 'B') ||
+    setweight(to_tsvector('turkish', coalesce(image_name, '')), 'C') ||
+    setweight(to_tsvector('turkish', coalesce(report, '')), 'D')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_reports_search_vector ON reports USING GIN (search_vector);
+
+-- Time-bucketed analytics rollups, filled incrementally by AnalyticsRollupService
+CREATE TABLE IF NOT EXISTS report_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    earthquake_id UUID NOT NULL,
+    bucket TIMESTAMP NOT NULL,
+    severity_band VARCHAR(8) NOT NULL,
+    report_count BIGINT NOT NULL,
+    PRIMARY KEY (granularity, earthquake_id, bucket, severity_band)
+);
+
+CREATE TABLE IF NOT EXISTS image_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    earthquake_id UUID NOT NULL,
+    bucket TIMESTAMP NOT NULL,
+    drone_id UUID NOT NULL,
+    image_count BIGINT NOT NULL,
+    PRIMARY KEY (granularity, earthquake_id, bucket, drone_id)
+);
+
+CREATE TABLE IF NOT EXISTS rollup_watermarks (
+    name VARCHAR(32) PRIMARY KEY,
+    processed_until TIMESTAMP NOT NULL
+);
+
+INSERT INTO rollup_watermarks (name, processed_until) VALUES ('reports', TIMESTAMP '1970-01-01 00:00:00')
+    ON CONFLICT (name) DO NOTHING;
+INSERT INTO rollup_watermarks (name, processed_until) VALUES ('drone_images', TIMESTAMP '1970-01-01 00:00:00')
+    ON CONFLICT (name) DO NOTHING;
+
+-- Map viewport queries: core PostgreSQL GiST over point(longitude, latitude), no PostGIS required
+CREATE INDEX IF NOT EXISTS idx_drone_images_location ON drone_images USING GIST (point(longitude, latitude));
+CREATE INDEX IF NOT EXISTS idx_reports_location ON reports USING GIST (point(longitude, latitude));
+
+-- Backfill chat session counters for sessions created before they existed
+UPDATE chat_sessions s
+SET message_count = c.messages, last_message_at = c.last_at
+FROM (SELECT session_id, COUNT(*) AS messages, MAX(timestamp) AS last_at
+      FROM chat_messages
+      WHERE session_id IN (SELECT id FROM chat_sessions WHERE last_message_at IS NULL)
+      GROUP BY session_id) c
+WHERE c.session_id = s.id AND s.last_message_at IS NULL;
+
+-- Prefix search on user name/email: LOWER(col) LIKE 'abc%' needs pattern ops under non-C collations
+CREATE INDEX IF NOT EXISTS idx_users_lower_name ON users (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_lower_email ON users (lower(email) text_pattern_ops);
+
+-- Time-ordered UUIDv7 keys. The application assigns them (@UuidGenerator VERSION_7); these defaults
+-- make rows inserted by hand or by tools follow the same order. Existing version 4 keys are left alone.
+-- Manual step, once after deploying, off-peak: primary-key indexes already bloated by random v4 inserts
+-- are compacted with REINDEX INDEX CONCURRENTLY <table>_pkey (it cannot run inside this script,
+-- which executes on every start).
+CREATE OR REPLACE FUNCTION uuid_v7() RETURNS uuid LANGUAGE sql VOLATILE AS
+'SELECT encode(set_bit(set_bit(overlay(uuid_send(gen_random_uuid()) PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3) FROM 1 FOR 6), 52, 1), 53, 1), ''hex'')::uuid';
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_v7();
+ALTER TABLE earthquakes ALTER COLUMN id SET DEFAULT uuid_v7();
+ALTER TABLE drones ALTER COLUMN id SET DEFAULT uuid_v7();
+ALTER TABLE drone_images ALTER COLUMN id SET DEFAULT uuid_v7();
+ALTER TABLE reports ALTER COLUMN id SET DEFAULT uuid_v7();
+ALTER TABLE chat_sessions ALTER COLUMN id SET DEFAULT uuid_v7();
+ALTER TABLE chat_messages ALTER COLUMN id SET DEFAULT uuid_v7();
+
+-- One-off data migrations, each recorded here so it runs exactly once per database
+CREATE TABLE IF NOT EXISTS schema_migrations (
+    name VARCHAR(64) PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- Earthquake damage totals used to be typed in by hand; rebuild them (and neighborhood_damage)
+-- from reports once so report deltas start from the real sums. Same SQL as DamageAggregateService.rebuild().
+DELETE FROM neighborhood_damage
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'rebuild_damage_totals');
+
+INSERT INTO neighborhood_damage (earthquake_id, neighborhood, report_count, collapsed, damaged, blocked)
+SELECT earthquake_id, COALESCE(location, ''), COUNT(*), COALESCE(SUM(collapsed_buildings), 0),
+       COALESCE(SUM(damaged_structures), 0), COALESCE(SUM(blocked_roads), 0)
+FROM reports
+WHERE earthquake_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'rebuild_damage_totals')
+GROUP BY earthquake_id, COALESCE(location, '');
+
+UPDATE earthquakes e
+SET collapsed = t.collapsed, damaged = t.damaged, blocked = t.blocked
+FROM (SELECT q.id, COALESCE(SUM(n.collapsed), 0) AS collapsed, COALESCE(SUM(n.damaged), 0) AS damaged,
+             COALESCE(SUM(n.blocked), 0) AS blocked
+      FROM earthquakes q LEFT JOIN neighborhood_damage n ON n.earthquake_id = q.id
+      GROUP BY q.id) t
+WHERE e.id = t.id
+  AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'rebuild_damage_totals');
+
+INSERT INTO schema_migrations (name) VALUES ('rebuild_damage_totals') ON CONFLICT (name) DO NOTHING;
+
+-- Shared per-table change counters behind listing ETags (DataVersions), so every instance agrees
+CREATE SEQUENCE IF NOT EXISTS data_version_earthquakes;
+CREATE SEQUENCE IF NOT EXISTS data_version_drones;
+CREATE SEQUENCE IF NOT EXISTS data_version_drone_images;
+CREATE SEQUENCE IF NOT EXISTS data_version_reports;
@@ -0,0 +1,64 @@
+package com.hades.services.service;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntentAutomatonTest {
+
+    @Test
+    void matchesAnyKeywordAndPrefersPriority() {
+        IntentAutomaton automaton = new IntentAutomaton(
+                List.of(List.of("merhaba"), List.of("deprem")), List.of(List.of(), List.of()), new int[] { 1, 2 });
+        assertEquals(0, automaton.match("Merhaba"));
+        assertEquals(1, automaton.match("merhaba, deprem oldu"));
+        assertEquals(IntentAutomaton.NO_MATCH, automaton.match("selam"));
+    }
+
+    @Test
+    void allOfNeedsEveryGroupInAnyOrder() {
+        IntentAutomaton automaton = new IntentAutomaton(
+                List.of(List.of()), List.of(List.of(List.of("yardım", "kanama"), List.of("ilk"))), new int[] { 1 });
+        assertEquals(0, automaton.match("kanama var, ilk ne yapmalıyım"));
+        assertEquals(0, automaton.match("İLK olarak yardım"));
+        assertEquals(IntentAutomaton.NO_MATCH, automaton.match("kanama var"));
+        assertEquals(IntentAutomaton.NO_MATCH, automaton.match("ilk olarak"));
+    }
+
+    @Test
+    void rejectsEmptyGroup() {
+        assertThrows(IllegalArgumentException.class, () -> new IntentAutomaton(
+                List.of(List.of()), List.of(List.of(List.of())), new int[] { 1 }));
+    }
+
+    @Test
+    void shippedIntentsKeepFirstAidBehindHelpWords() throws IOException {
+        IntentEngine.IntentFile file;
+        try (InputStream in = getClass().getResourceAsStream("/chat-intents.json")) {
+            file = JsonMapper.builder().build().readValue(in, IntentEngine.IntentFile.class);
+        }
+        List<IntentEngine.Intent> intents = file.intents();
+        IntentAutomaton automaton = new IntentAutomaton(
+                intents.stream().map(IntentEngine.Intent::keywords).toList(),
+                intents.stream().map(IntentEngine.Intent::allOf).toList(),
+                intents.stream().mapToInt(IntentEngine.Intent::priority).toArray());
+
+        assertEquals("first-aid", intentOf(automaton, intents, "kanama var, ilk ne yapmalıyım"));
+        assertEquals("first-aid", intentOf(automaton, intents, "ilk yardım"));
+        assertEquals("first-aid", intentOf(automaton, intents, "yaralı var"));
+        assertEquals("help", intentOf(automaton, intents, "yardım"));
+        assertEquals("help", intentOf(automaton, intents, "kanama var"));
+        assertEquals("thanks", intentOf(automaton, intents, "ilk olarak teşekkür ederim"));
+    }
+
+    private static String intentOf(IntentAutomaton automaton, List<IntentEngine.Intent> intents, String message) {
+        int intent = automaton.match(message);
+        return intent == IntentAutomaton.NO_MATCH ? null : intents.get(intent).name();
+    }
+}
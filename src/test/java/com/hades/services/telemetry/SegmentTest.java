@@ -0,0 +1,129 @@
+package com.hades.services.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SegmentTest {
+
+    private record Sample(long timestamp, long battery, long altitude) {
+        Sample(long timestamp, double battery, double altitude) {
+            this(timestamp, Double.doubleToRawLongBits(battery), Double.doubleToRawLongBits(altitude));
+        }
+    }
+
+    @Test
+    void bitStreamRoundTripsEveryWidthAcrossWordBoundaries() {
+        Random random = new Random(42);
+        BitWriter writer = new BitWriter(1);
+        List<long[]> written = new ArrayList<>();
+        // Widths cycle through 1..64 so fields start at every offset within a word
+        for (int i = 0; i < 1_000; i++) {
+            int bits = 1 + i % 64;
+            long value = bits == 64 ? random.nextLong() : random.nextLong() & ((1L << bits) - 1);
+            writer.write(value, bits);
+            written.add(new long[] { value, bits });
+        }
+
+        BitReader reader = new BitReader(LongBuffer.wrap(writer.copyWords()), 0);
+        for (long[] field : written) {
+            assertEquals(field[0], reader.read((int) field[1]));
+        }
+    }
+
+    @Test
+    void roundTripsSteadyStream() {
+        List<Sample> samples = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            samples.add(new Sample(1_700_000_000_000L + i * 1_000L, 100.0 - i / 60, 120.0 + i % 7));
+        }
+        assertRoundTrip(samples);
+    }
+
+    @Test
+    void roundTripsDeltaOfDeltaAtEveryEncodingBoundary() {
+        // Each step out and back covers +dod and -dod: the 7, 9 and 12-bit ranges are [-64, 63],
+        // [-256, 255] and [-2048, 2047], and anything wider takes the 64-bit form
+        long[] dods = { 1, 63, 64, 65, 255, 256, 257, 2047, 2048, 2049, 1L << 40, Long.MAX_VALUE / 4 };
+        long base = 5_000;
+        long timestamp = 0;
+        List<Sample> samples = new ArrayList<>();
+        samples.add(new Sample(timestamp, 1.0, 2.0));
+        timestamp += base;
+        samples.add(new Sample(timestamp, 1.0, 2.0));
+        for (long dod : dods) {
+            timestamp += base + dod;
+            samples.add(new Sample(timestamp, 1.0, 2.0));
+            timestamp += base;
+            samples.add(new Sample(timestamp, 1.0, 2.0));
+        }
+        assertRoundTrip(samples);
+    }
+
+    @Test
+    void roundTripsFullWidthDeltaOfDelta() {
+        // A 2^62 ms jump and straight back to 1 ms: delta-of-delta of +-(2^62 - 1)
+        List<Sample> samples = List.of(
+                new Sample(0L, 1.0, 1.0),
+                new Sample(1L, 1.0, 1.0),
+                new Sample((1L << 62) + 1, 1.0, 1.0),
+                new Sample((1L << 62) + 2, 1.0, 1.0));
+        assertRoundTrip(samples);
+    }
+
+    @Test
+    void roundTripsNaNAndSignedZero() {
+        double otherNaN = Double.longBitsToDouble(0x7FF0_0000_0000_0001L);
+        double[] values = { Double.NaN, 42.0, Double.NaN, Double.NaN, otherNaN, -0.0, 0.0,
+                Double.NEGATIVE_INFINITY, Double.MIN_VALUE, Double.NaN, 17.5 };
+        List<Sample> samples = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            samples.add(new Sample(1_000L * i, values[i], values[values.length - 1 - i]));
+        }
+        assertRoundTrip(samples);
+    }
+
+    @Test
+    void roundTripsRandomValues() {
+        Random random = new Random(7);
+        List<Sample> samples = new ArrayList<>();
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < 10_000; i++) {
+            timestamp += 1 + random.nextInt(3_000);
+            samples.add(new Sample(timestamp, random.nextLong(), random.nextLong()));
+        }
+        assertRoundTrip(samples);
+    }
+
+    @Test
+    void scanHonoursInclusiveRange() {
+        Segment.Encoder encoder = new Segment.Encoder();
+        for (int i = 0; i < 100; i++) {
+            encoder.append(i * 10L, i, i);
+        }
+        List<Long> timestamps = new ArrayList<>();
+        Segment.scan(LongBuffer.wrap(encoder.toWords()), 200, 300, (timestamp, battery, altitude) ->
+                timestamps.add(timestamp));
+        assertEquals(11, timestamps.size());
+        assertEquals(200L, timestamps.getFirst());
+        assertEquals(300L, timestamps.getLast());
+    }
+
+    private static void assertRoundTrip(List<Sample> samples) {
+        Segment.Encoder encoder = new Segment.Encoder();
+        for (Sample sample : samples) {
+            encoder.append(sample.timestamp(), Double.longBitsToDouble(sample.battery()),
+                    Double.longBitsToDouble(sample.altitude()));
+        }
+
+        List<Sample> decoded = new ArrayList<>();
+        Segment.scan(LongBuffer.wrap(encoder.toWords()), Long.MIN_VALUE, Long.MAX_VALUE,
+                (timestamp, battery, altitude) -> decoded.add(new Sample(timestamp, battery, altitude)));
+        assertEquals(samples, decoded);
+    }
+}
@@ -0,0 +1,40 @@
+package com.hades.services.telemetry;
+
+import com.hades.services.model.TelemetryPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TelemetryStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void queryReturnsSamplesFromOverlappingSegmentsOnly() throws Exception {
+        TelemetryStore store = new TelemetryStore(root.toString());
+        store.recover();
+        UUID droneId = UUID.randomUUID();
+        // Five hours at one sample per 10 s, sealed into hourly segments as it goes
+        long start = 1_700_000_000_000L;
+        for (long t = start; t < start + 5 * 3_600_000L; t += 10_000) {
+            store.append(droneId, t, 50, 100);
+        }
+
+        // Windows starting mid-segment, on a segment boundary, and one ms past it
+        for (long from : new long[] { start + 5_400_000L, start + 3_600_000L, start + 3_600_001L }) {
+            long to = from + 3_600_000L;
+            List<TelemetryPoint> points = store.query(droneId, from, to, 0);
+            long expectedFirst = start + Math.ceilDiv(from - start, 10_000) * 10_000;
+            long expectedLast = start + Math.floorDiv(to - start, 10_000) * 10_000;
+            assertEquals((expectedLast - expectedFirst) / 10_000 + 1, points.size());
+            assertEquals(expectedFirst, points.getFirst().timestamp().toEpochMilli());
+            assertEquals(expectedLast, points.getLast().timestamp().toEpochMilli());
+        }
+    }
+}